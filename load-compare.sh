@@ -0,0 +1,47 @@
+#!/bin/bash
+
+# Vergleicht den Server mit Platform Threads und mit Virtual Threads unter steigender Last.
+# Ergebnisse: build/reports/load/platform.csv und build/reports/load/virtual.csv
+#
+# Optional: LOAD_PATH, LOAD_SECONDS, LOAD_LEVELS (z.B. "50,100,200,400")
+
+LOAD_PATH=${LOAD_PATH:-"/api/books?limit=50"}
+LOAD_SECONDS=${LOAD_SECONDS:-15}
+LOAD_LEVELS=${LOAD_LEVELS:-"50,100,200,400,800,1600"}
+
+run_mode() {
+    local mode=$1
+    local flags=$2
+
+    echo -e "\n=== Modus: $mode ==="
+    ./gradlew bootRun $flags > "build/load-$mode-server.log" 2>&1 &
+    SERVER_PID=$!
+
+    echo "   Warte auf den Server..."
+    for i in $(seq 1 60); do
+        if curl -sf http://127.0.0.1:8081/actuator/health > /dev/null; then
+            break
+        fi
+        sleep 2
+    done
+
+    ./gradlew -q loadTest -PloadLabel="$mode" -PloadPath="$LOAD_PATH" \
+        -PloadSeconds="$LOAD_SECONDS" -PloadLevels="$LOAD_LEVELS"
+
+    kill $SERVER_PID 2>/dev/null
+    wait $SERVER_PID 2>/dev/null
+    # bootRun startet die Anwendung in einem eigenen Prozess
+    pkill -f 'de.tutorial.bookstore.BookstoreApplication' 2>/dev/null
+    sleep 3
+}
+
+mkdir -p build
+./gradlew -q compileJava compileTestJava
+
+run_mode platform ""
+run_mode virtual "-PvirtualThreads"
+
+echo -e "\nGepinnte Virtual Threads (sollte leer sein):"
+grep -A3 "Thread\[#" build/load-virtual-server.log | head -20
+
+echo -e "\nErgebnisse in build/reports/load/"
@@ -0,0 +1,55 @@
+package de.tutorial.bookstore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.tutorial.bookstore.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson-(De-)Serialisierung eines {@link Book}, wie sie die REST-API für jede Antwort ausführt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookJsonBenchmark {
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Book book;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(Book.class);
+        reader = objectMapper.readerFor(Book.class);
+
+        book = new Book("978-3-16-148410-0", "Clean Code", "Robert C. Martin", new BigDecimal("39.95"));
+        book.setId(1L);
+        book.setStockQuantity(15);
+        book.setCategory("Programmierung");
+        book.setDescription("A Handbook of Agile Software Craftsmanship. ".repeat(10));
+        json = writer.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public Book deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
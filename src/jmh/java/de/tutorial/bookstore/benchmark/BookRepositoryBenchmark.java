@@ -0,0 +1,125 @@
+package de.tutorial.bookstore.benchmark;
+
+import de.tutorial.bookstore.BookstoreApplication;
+import de.tutorial.bookstore.model.Book;
+import de.tutorial.bookstore.repository.BookRepository;
+import de.tutorial.bookstore.service.BookSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository-Zugriffe gegen eine H2-Datenbank mit unterschiedlich großen Katalogen.
+ * Jede Katalog-Größe bekommt eine eigene In-Memory-Datenbank und einen eigenen Spring-Kontext.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookRepositoryBenchmark {
+
+    private static final String[] TITLE_WORDS = {
+        "Java", "Spring", "Clean", "Code", "Refactoring", "Kotlin", "Groovy", "Testing", "Patterns", "Insel"
+    };
+    private static final String[] CATEGORIES = {"Programmierung", "Architektur", "Testing", "Datenbanken"};
+    private static final long FIRST_ID = 1_000;
+    private static final int INSERT_BATCH_SIZE = 1_000;
+
+    @Param({"1000", "10000", "100000"})
+    int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private BookSearchIndex bookSearchIndex;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookstoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh" + catalogSize + ";DB_CLOSE_DELAY=-1",
+                        // Gemessen werden die Datenbankzugriffe, nicht Treffer im Second-Level- und Query-Cache
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.de.tutorial=WARN")
+                .run();
+        bookRepository = context.getBean(BookRepository.class);
+        bookSearchIndex = context.getBean(BookSearchIndex.class);
+
+        seed(context.getBean(JdbcTemplate.class));
+        // Der Index wurde beim Start über den leeren Katalog aufgebaut
+        bookSearchIndex.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Book> findById() {
+        return bookRepository.findById(FIRST_ID + ThreadLocalRandom.current().nextInt(catalogSize));
+    }
+
+    @Benchmark
+    public Optional<Book> findByIsbn() {
+        return bookRepository.findByIsbn(isbn(ThreadLocalRandom.current().nextInt(catalogSize)));
+    }
+
+    @Benchmark
+    public List<Book> findByCategory() {
+        return bookRepository.findByCategory("Datenbanken");
+    }
+
+    @Benchmark
+    public List<Book> searchBooks() {
+        return bookRepository.searchBooks("refactoring");
+    }
+
+    @Benchmark
+    public List<Book> searchIndex() {
+        return bookSearchIndex.search("refactoring");
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < catalogSize; i++) {
+            batch.add(new Object[]{
+                FIRST_ID + i,
+                isbn(i),
+                TITLE_WORDS[i % TITLE_WORDS.length] + " " + TITLE_WORDS[(i / 7) % TITLE_WORDS.length] + " " + i,
+                "Autor " + (i % 500),
+                BigDecimal.valueOf(500 + i % 9_000, 2),
+                i % 40,
+                CATEGORIES[i % CATEGORIES.length]
+            });
+            if (batch.size() == INSERT_BATCH_SIZE || i == catalogSize - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO books (id, isbn, title, author, price, stock_quantity, category) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static String isbn(int n) {
+        return "978-3-" + n + "-1-0";
+    }
+}
@@ -0,0 +1,88 @@
+package de.tutorial.bookstore.benchmark;
+
+import de.tutorial.bookstore.service.PriceCalculationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alle Methoden von {@link PriceCalculationService}, BigDecimal- und Cent-Variante nebeneinander
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PriceCalculationBenchmark {
+
+    // Eine Menge je Rabattstufe
+    @Param({"1", "3", "5", "10"})
+    int quantity;
+
+    private PriceCalculationService service;
+    private BigDecimal price;
+    private long priceCents;
+
+    @Setup
+    public void setUp() {
+        service = new PriceCalculationService();
+        price = new BigDecimal("39.95");
+        priceCents = PriceCalculationService.toCents(price);
+    }
+
+    @Benchmark
+    public BigDecimal calculateQuantityDiscount() {
+        return service.calculateQuantityDiscount(price, quantity);
+    }
+
+    @Benchmark
+    public BigDecimal calculateFinalPrice() {
+        return service.calculateFinalPrice(price, quantity);
+    }
+
+    @Benchmark
+    public BigDecimal calculateVAT() {
+        return service.calculateVAT(price);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalWithVAT() {
+        return service.calculateTotalWithVAT(price);
+    }
+
+    @Benchmark
+    public BigDecimal calculateShippingCost() {
+        return service.calculateShippingCost(price);
+    }
+
+    @Benchmark
+    public long quantityDiscountCents() {
+        return service.quantityDiscountCents(priceCents, quantity);
+    }
+
+    @Benchmark
+    public long finalPriceCents() {
+        return service.finalPriceCents(priceCents, quantity);
+    }
+
+    @Benchmark
+    public long vatCents() {
+        return service.vatCents(priceCents);
+    }
+
+    @Benchmark
+    public long totalWithVatCents() {
+        return service.totalWithVatCents(priceCents);
+    }
+
+    @Benchmark
+    public long shippingCostCents() {
+        return service.shippingCostCents(priceCents);
+    }
+}
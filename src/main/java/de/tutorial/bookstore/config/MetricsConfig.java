@@ -0,0 +1,37 @@
+package de.tutorial.bookstore.config;
+
+import de.tutorial.bookstore.metrics.RequestMetricsInterceptor;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Metriken: Endpunkte ({@code http.server.requests}) und Repository-Aufrufe
+ * ({@code spring.data.repository.invocations}) misst Spring Boot selbst,
+ * {@code @Timed}-Methoden laufen über den {@link TimedAspect},
+ * SQL- und Cache-Zugriffe pro Request über den {@link RequestMetricsInterceptor}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,80 @@
+package de.tutorial.bookstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import de.tutorial.bookstore.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lese-/Schreib-Trennung, aktiv sobald {@code bookstore.datasource.replicas} mindestens ein Replikat enthält.
+ *
+ * Die Anwendung sieht nur einen {@link LazyConnectionDataSourceProxy}: er holt die echte Verbindung
+ * erst beim ersten Statement und weiß dann, ob die Transaktion read-only ist. Read-only-Transaktionen -
+ * alle lesenden Repository-Methoden, {@code @Transactional(readOnly = true)} - gehen über den
+ * {@link ReplicaRoutingDataSource} an ein Replikat, alles andere an {@code spring.datasource}.
+ *
+ * Voraussetzung ist {@code spring.jpa.open-in-view: false} (application.yml): sonst hält der EntityManager
+ * des Requests die erste Verbindung, evtl. zu einem Replikat, auch für spätere Schreibzugriffe fest.
+ *
+ * Replikate laufen der Primary hinterher: wer direkt nach dem Schreiben lesen muss, liest in
+ * derselben (schreibenden) Transaktion.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "bookstore.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    /**
+     * Der Primary wie ohne Replikate aus {@code spring.datasource}, inklusive Hikari-Einstellungen
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primaryProperties,
+                                                             ReadReplicaProperties properties) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReadReplicaProperties.Replica replica : properties.replicas()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(primaryProperties.determineDriverClassName())
+                    .url(replica.url())
+                    .username(replica.username())
+                    .password(replica.password())
+                    .build();
+            dataSource.setPoolName("replica-" + replicas.size());
+            if (replica.initialize()) {
+                new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                        .execute(dataSource);
+            }
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                properties.maxLag(), properties.lagQuery(), properties.checkInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+}
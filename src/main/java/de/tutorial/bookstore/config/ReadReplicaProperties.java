@@ -0,0 +1,29 @@
+package de.tutorial.bookstore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Lese-Replikate unter {@code bookstore.datasource}, siehe {@link ReadReplicaConfig}
+ *
+ * @param replicas      Verbindungsdaten je Replikat
+ * @param maxLag        größte noch akzeptierte Verzögerung eines Replikats
+ * @param lagQuery      SQL, das auf dem Replikat dessen Verzögerung in Millisekunden liefert (optional)
+ * @param checkInterval Abstand der Prüfungen von Erreichbarkeit und Verzögerung
+ */
+@ConfigurationProperties("bookstore.datasource")
+public record ReadReplicaProperties(
+        List<Replica> replicas,
+        @DefaultValue("5s") Duration maxLag,
+        String lagQuery,
+        @DefaultValue("5s") Duration checkInterval) {
+
+    /**
+     * @param initialize Schema und Beispieldaten beim Start einspielen - nur für lokale H2-Replikate
+     */
+    public record Replica(String url, String username, String password, boolean initialize) {
+    }
+}
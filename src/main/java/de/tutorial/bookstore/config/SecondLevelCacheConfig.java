@@ -0,0 +1,34 @@
+package de.tutorial.bookstore.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Eigener JCache-{@link CacheManager} für den Hibernate Second-Level-Cache jedes Application Context.
+ *
+ * Der Caching-Provider ist JVM-weit und liefert pro URI denselben CacheManager. Mit der Standard-URI
+ * teilten sich mehrere Contexte (Tests, Benchmarks) die Regionen - und damit gecachte Bücher aus
+ * verschiedenen Datenbanken. Die Regionsnamen bleiben unverändert, die Größen aus application.conf gelten weiter.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("bookstore-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+}
@@ -1,53 +1,128 @@
 package de.tutorial.bookstore.controller;
 
+import de.tutorial.bookstore.dto.BookCacheStats;
+import de.tutorial.bookstore.dto.BookPage;
+import de.tutorial.bookstore.dto.BookSuggestion;
 import de.tutorial.bookstore.model.Book;
 import de.tutorial.bookstore.repository.BookRepository;
+import de.tutorial.bookstore.service.BookCatalogService;
+import de.tutorial.bookstore.service.BookLookupCache;
+import de.tutorial.bookstore.service.BookSearchIndex;
+import de.tutorial.bookstore.service.BookSuggestIndex;
+import de.tutorial.bookstore.service.CategoryFacetService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
     
     private final BookRepository bookRepository;
+    private final BookCatalogService bookCatalogService;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookSuggestIndex bookSuggestIndex;
+    private final BookLookupCache bookLookupCache;
+    private final CategoryFacetService categoryFacetService;
     
     @Autowired
-    public BookController(BookRepository bookRepository) {
+    public BookController(BookRepository bookRepository, BookCatalogService bookCatalogService,
+                          BookSearchIndex bookSearchIndex, BookSuggestIndex bookSuggestIndex,
+                          BookLookupCache bookLookupCache, CategoryFacetService categoryFacetService) {
         this.bookRepository = bookRepository;
+        this.bookCatalogService = bookCatalogService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookSuggestIndex = bookSuggestIndex;
+        this.bookLookupCache = bookLookupCache;
+        this.categoryFacetService = categoryFacetService;
     }
     
     @GetMapping
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    public ResponseEntity<List<Book>> getAllBooks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Version vor dem Laden lesen: ein ETag ist so nie neuer als der ausgelieferte Inhalt
+        String etag = ETags.ofCollection("books", categoryFacetService.epoch(), categoryFacetService.catalogVersion());
+        if (ETags.noneMatchHit(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).body(bookRepository.findAll());
+    }
+    
+    @GetMapping(params = "limit")
+    public BookPage getBooksPage(@RequestParam(required = false) Long afterId, @RequestParam Integer limit) {
+        return bookCatalogService.findPage(afterId, limit);
+    }
+    
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        StreamingResponseBody body = bookCatalogService::writeCatalog;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
-        return bookRepository.findById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Book> getBookById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(bookLookupCache.findById(id), ifNoneMatch);
     }
     
     @GetMapping("/isbn/{isbn}")
-    public ResponseEntity<Book> getBookByIsbn(@PathVariable String isbn) {
-        return bookRepository.findByIsbn(isbn)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Book> getBookByIsbn(@PathVariable String isbn,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(bookLookupCache.findByIsbn(isbn), ifNoneMatch);
+    }
+    
+    @GetMapping("/cache/stats")
+    public BookCacheStats getCacheStats() {
+        return bookLookupCache.stats();
     }
     
     @GetMapping("/search")
     public List<Book> searchBooks(@RequestParam String query) {
-        return bookRepository.searchBooks(query.toLowerCase());
+        return bookSearchIndex.search(query.toLowerCase());
+    }
+    
+    /**
+     * Vervollständigung für die Suchbox: Titel und Autoren mit passendem Wortanfang, nach Lagerbestand
+     */
+    @GetMapping("/suggest")
+    public List<BookSuggestion> suggest(@RequestParam String query,
+                                        @RequestParam(defaultValue = "" + BookSuggestIndex.TOP_K) int limit) {
+        return bookSuggestIndex.suggest(query, limit);
+    }
+    
+    /**
+     * Suchtreffer als NDJSON, ein Buch pro Zeile: die ersten Treffer kommen, bevor alle geladen sind.
+     * Legt der Client auf, endet die Suche beim nächsten Block.
+     */
+    @GetMapping("/search/stream")
+    public ResponseEntity<StreamingResponseBody> streamSearch(@RequestParam String query,
+                                                              @RequestParam(required = false) Integer limit) {
+        StreamingResponseBody body = out -> bookCatalogService.writeSearchResults(query, limit, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
     
     @GetMapping("/category/{category}")
-    public List<Book> getBooksByCategory(@PathVariable String category) {
-        return bookRepository.findByCategory(category);
+    public ResponseEntity<List<Book>> getBooksByCategory(@PathVariable String category,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.ofCollection("category", categoryFacetService.epoch(),
+                categoryFacetService.categoryVersion(category));
+        if (ETags.noneMatchHit(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).body(categoryFacetService.findBooks(category));
     }
     
     @PostMapping
@@ -56,13 +131,28 @@ public class BookController {
         return bookRepository.save(book);
     }
     
+    /**
+     * Aktualisiert ein Buch. Mit {@code If-Match} nur, wenn der Client die aktuelle Fassung kennt (sonst 412).
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Book> updateBook(@PathVariable Long id, @Valid @RequestBody Book book) {
-        if (!bookRepository.existsById(id)) {
+    public ResponseEntity<Book> updateBook(@PathVariable Long id, @Valid @RequestBody Book book,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Long> currentVersion = bookRepository.findVersionById(id);
+        if (currentVersion.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        if (!ETags.ifMatchSatisfied(ifMatch, ETags.of(id, currentVersion.get()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
         book.setId(id);
-        return ResponseEntity.ok(bookRepository.save(book));
+        book.setVersion(currentVersion.get());
+        try {
+            Book saved = bookRepository.save(book);
+            return ResponseEntity.ok().eTag(ETags.of(saved)).body(saved);
+        } catch (OptimisticLockingFailureException e) {
+            // Zwischen Prüfung und Speichern von jemand anderem geändert
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
     }
     
     @DeleteMapping("/{id}")
@@ -70,4 +160,22 @@ public class BookController {
     public void deleteBook(@PathVariable Long id) {
         bookRepository.deleteById(id);
     }
-}
\ No newline at end of file
+    
+    /**
+     * 304 ohne Body, wenn das ETag passt - das Buch wird dann gar nicht serialisiert
+     */
+    private static ResponseEntity<Book> conditional(Optional<Book> book, String ifNoneMatch) {
+        if (book.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ETags.of(book.get());
+        if (ETags.noneMatchHit(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).body(book.get());
+    }
+    
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+}
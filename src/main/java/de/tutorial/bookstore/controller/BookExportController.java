@@ -0,0 +1,77 @@
+package de.tutorial.bookstore.controller;
+
+import de.tutorial.bookstore.service.BookExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk-Export des Katalogs für nachgelagerte Systeme: {@code GET /api/books/export?format=ndjson|csv}.
+ * Gestreamt direkt aus der Datenbank, mit {@code Accept-Encoding: gzip} komprimiert.
+ */
+@RestController
+@RequestMapping("/api/books/export")
+public class BookExportController {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final BookExportService bookExportService;
+
+    @Autowired
+    public BookExportController(BookExportService bookExportService) {
+        this.bookExportService = bookExportService;
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        BookExportService.Format exportFormat = parseFormat(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                bookExportService.export(exportFormat, compressed);
+                compressed.finish();
+            } else {
+                bookExportService.export(exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat == BookExportService.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("books." + format.toLowerCase(Locale.ROOT))
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static BookExportService.Format parseFormat(String format) {
+        try {
+            return BookExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unbekanntes Export-Format: " + format, e);
+        }
+    }
+}
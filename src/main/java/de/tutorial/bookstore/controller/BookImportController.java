@@ -0,0 +1,45 @@
+package de.tutorial.bookstore.controller;
+
+import de.tutorial.bookstore.dto.ImportReport;
+import de.tutorial.bookstore.service.BookImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk-Import: der Body wird gestreamt und nie komplett in den Speicher geladen.
+ * Fehlerhafte Datensätze brechen den Import nicht ab, sondern landen im Report.
+ */
+@RestController
+@RequestMapping("/api/books/import")
+public class BookImportController {
+
+    private final BookImportService bookImportService;
+
+    @Autowired
+    public BookImportController(BookImportService bookImportService) {
+        this.bookImportService = bookImportService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReport importNdjson(InputStream body) throws IOException {
+        return bookImportService.importNdjson(body);
+    }
+
+    @PostMapping(consumes = "text/csv")
+    public ImportReport importCsv(InputStream body) throws IOException {
+        try {
+            return bookImportService.importCsv(body);
+        } catch (IllegalArgumentException e) {
+            // Ungültige Kopfzeile
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package de.tutorial.bookstore.controller;
+
+import de.tutorial.bookstore.dto.CartQuote;
+import de.tutorial.bookstore.dto.CartQuoteRequest;
+import de.tutorial.bookstore.service.CartQuoteService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/cart")
+public class CartController {
+
+    private final CartQuoteService cartQuoteService;
+
+    @Autowired
+    public CartController(CartQuoteService cartQuoteService) {
+        this.cartQuoteService = cartQuoteService;
+    }
+
+    /**
+     * Bepreist alle Positionen inklusive Rabatt, MwSt und Versand in einem Aufruf
+     */
+    @PostMapping("/quote")
+    public CartQuote quote(@Valid @RequestBody CartQuoteRequest request) {
+        return cartQuoteService.quote(request.lines());
+    }
+}
@@ -0,0 +1,69 @@
+package de.tutorial.bookstore.controller;
+
+import de.tutorial.bookstore.snapshot.CatalogSnapshot;
+import de.tutorial.bookstore.snapshot.CatalogSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Lesezugriffe aus dem Memory-Mapped-Katalog-Snapshot: dieselben Antworten wie unter {@code /api/books},
+ * aber ohne Datenbank und ohne Entities. Der Stand kann einige Sekunden hinter der Datenbank liegen.
+ */
+@RestController
+@RequestMapping("/api/catalog/books")
+public class CatalogSnapshotController {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    public CatalogSnapshotController(CatalogSnapshotService catalogSnapshotService) {
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getBookById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        return book(snapshot, snapshot.findById(id), ifNoneMatch);
+    }
+
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<byte[]> getBookByIsbn(@PathVariable String isbn,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        return book(snapshot, snapshot.findByIsbn(isbn), ifNoneMatch);
+    }
+
+    @GetMapping("/category/{category}")
+    public ResponseEntity<byte[]> getBooksByCategory(@PathVariable String category) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogSnapshotService.toJson(snapshot, snapshot.findByCategory(category)));
+    }
+
+    /**
+     * Gleiche ETags wie {@code /api/books/{id}} - ein Client kann zwischen beiden Pfaden wechseln
+     */
+    private ResponseEntity<byte[]> book(CatalogSnapshot snapshot, int record, String ifNoneMatch) {
+        if (record < 0) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ETags.of(snapshot.id(record), snapshot.version(record));
+        if (ETags.noneMatchHit(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogSnapshotService.toJson(snapshot, record));
+    }
+}
@@ -0,0 +1,30 @@
+package de.tutorial.bookstore.controller;
+
+import de.tutorial.bookstore.dto.CategoryFacet;
+import de.tutorial.bookstore.service.CategoryFacetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/categories")
+public class CategoryController {
+
+    private final CategoryFacetService categoryFacetService;
+
+    @Autowired
+    public CategoryController(CategoryFacetService categoryFacetService) {
+        this.categoryFacetService = categoryFacetService;
+    }
+
+    /**
+     * Alle Kategorien mit Anzahl Bücher und lieferbaren Büchern - ohne Datenbankzugriff
+     */
+    @GetMapping
+    public List<CategoryFacet> getFacets() {
+        return categoryFacetService.facets();
+    }
+}
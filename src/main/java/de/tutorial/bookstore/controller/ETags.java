@@ -0,0 +1,63 @@
+package de.tutorial.bookstore.controller;
+
+import de.tutorial.bookstore.model.Book;
+
+/**
+ * Starke ETags aus Zeilen- bzw. Listen-Versionen und ihr Abgleich mit
+ * {@code If-None-Match} (schwacher Vergleich) und {@code If-Match} (starker Vergleich, RFC 9110)
+ */
+final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    static String of(Book book) {
+        return of(book.getId(), book.getVersion());
+    }
+
+    static String of(Long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    static String ofCollection(String name, long epoch, long version) {
+        return "\"" + name + "-" + Long.toString(epoch, 36) + "-" + version + "\"";
+    }
+
+    /**
+     * {@code true}, wenn der Client die aktuelle Fassung bereits hat (→ 304)
+     */
+    static boolean noneMatchHit(String ifNoneMatch, String etag) {
+        return matches(ifNoneMatch, etag, false);
+    }
+
+    /**
+     * {@code true}, wenn die Vorbedingung erfüllt ist; ohne Header immer erfüllt
+     */
+    static boolean ifMatchSatisfied(String ifMatch, String etag) {
+        return ifMatch == null || matches(ifMatch, etag, true);
+    }
+
+    private static boolean matches(String header, String etag, boolean strong) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                if (strong) {
+                    continue;
+                }
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,38 @@
+package de.tutorial.bookstore.controller;
+
+import de.tutorial.bookstore.dto.StockChangeRequest;
+import de.tutorial.bookstore.dto.StockLevel;
+import de.tutorial.bookstore.service.StockService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Reservierung und Freigabe von Lagerbestand. Nicht genug Bestand: 409 Conflict.
+ */
+@RestController
+@RequestMapping("/api/stock")
+public class StockController {
+
+    private final StockService stockService;
+
+    @Autowired
+    public StockController(StockService stockService) {
+        this.stockService = stockService;
+    }
+
+    @PostMapping("/reserve")
+    public List<StockLevel> reserve(@Valid @RequestBody StockChangeRequest request) {
+        return stockService.reserve(request.items());
+    }
+
+    @PostMapping("/release")
+    public List<StockLevel> release(@Valid @RequestBody StockChangeRequest request) {
+        return stockService.release(request.items());
+    }
+}
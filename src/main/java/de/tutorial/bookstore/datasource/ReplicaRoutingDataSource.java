@@ -0,0 +1,167 @@
+package de.tutorial.bookstore.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verteilt Lese-Verbindungen reihum auf die Replikate und fällt auf den Primary zurück.
+ *
+ * Ein Hintergrund-Thread prüft die Replikate regelmäßig: nicht erreichbar oder mit einer Verzögerung
+ * über {@code maxLag} (gemessen mit {@code lagQuery}, die Millisekunden liefert) werden sie
+ * übersprungen, bis eine spätere Prüfung sie wieder freigibt. Schlägt das Öffnen einer Verbindung fehl,
+ * wird das Replikat sofort gesperrt und das nächste versucht. Ohne {@code lagQuery} zählt nur die
+ * Erreichbarkeit.
+ *
+ * Wird als Read-only-Ziel eines {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * verwendet, siehe {@code ReadReplicaConfig}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthCheck;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    Duration maxLag, String lagQuery, Duration checkInterval) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery;
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkReplicas();
+        long interval = checkInterval.toMillis();
+        healthCheck.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionFactory factory) throws SQLException {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                return factory.open(replica.dataSource);
+            } catch (SQLException e) {
+                replica.markUnavailable("nicht erreichbar: " + e.getMessage());
+            }
+        }
+        return factory.open(primary);
+    }
+
+    /**
+     * Prüft Erreichbarkeit und Verzögerung aller Replikate (läuft regelmäßig im Hintergrund)
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                long lag = lag(connection);
+                if (lag > maxLagMillis) {
+                    replica.markUnavailable("Verzögerung " + lag + " ms");
+                } else {
+                    replica.markAvailable();
+                }
+            } catch (SQLException e) {
+                replica.markUnavailable("nicht erreichbar: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Anzahl der Replikate, die gerade Lesezugriffe bekommen
+     */
+    public int availableReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.available).count();
+    }
+
+    private long lag(Connection connection) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            // Keine Zeile oder NULL: das Replikat kennt seine Verzögerung nicht, also nicht verwenden
+            if (!result.next()) {
+                return Long.MAX_VALUE;
+            }
+            long lag = result.getLong(1);
+            return result.wasNull() ? Long.MAX_VALUE : lag;
+        }
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Replikat ließ sich nicht schließen", e);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        final DataSource dataSource;
+        volatile boolean available = true;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void markAvailable() {
+            if (!available) {
+                log.info("Replikat {} wieder verfügbar", dataSource);
+            }
+            available = true;
+        }
+
+        void markUnavailable(String reason) {
+            if (available) {
+                log.warn("Replikat {} gesperrt, {}", dataSource, reason);
+            }
+            available = false;
+        }
+    }
+}
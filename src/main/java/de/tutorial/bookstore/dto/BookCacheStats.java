@@ -0,0 +1,22 @@
+package de.tutorial.bookstore.dto;
+
+/**
+ * Kennzahlen des Buch-Caches, getrennt nach Zugriff per ID und per ISBN
+ */
+public record BookCacheStats(
+        long idEntries, long idHits, long idMisses, long idEvictions,
+        long isbnEntries, long isbnHits, long isbnMisses, long isbnEvictions) {
+    
+    public double idHitRate() {
+        return rate(idHits, idMisses);
+    }
+    
+    public double isbnHitRate() {
+        return rate(isbnHits, isbnMisses);
+    }
+    
+    private static double rate(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+}
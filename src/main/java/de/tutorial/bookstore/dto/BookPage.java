@@ -0,0 +1,12 @@
+package de.tutorial.bookstore.dto;
+
+import de.tutorial.bookstore.model.Book;
+
+import java.util.List;
+
+/**
+ * Eine Seite des Katalogs für die Keyset-Pagination.
+ * Mit {@code nextAfterId} als {@code afterId} wird die nächste Seite abgerufen.
+ */
+public record BookPage(List<Book> books, Long nextAfterId, boolean hasMore) {
+}
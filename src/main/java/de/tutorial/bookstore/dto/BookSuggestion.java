@@ -0,0 +1,7 @@
+package de.tutorial.bookstore.dto;
+
+/**
+ * Vorschlag für die Suchbox: Titel oder Autor und der Lagerbestand aller Bücher dazu (Rangfolge)
+ */
+public record BookSuggestion(String text, long stock) {
+}
@@ -0,0 +1,15 @@
+package de.tutorial.bookstore.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+
+/**
+ * Eine Position im Warenkorb, referenziert per Buch-ID oder ISBN (die ID hat Vorrang)
+ */
+public record CartLine(Long bookId, String isbn, @Min(value = 1, message = "Menge muss mindestens 1 sein") int quantity) {
+
+    @AssertTrue(message = "Buch-ID oder ISBN ist erforderlich")
+    public boolean isReferenced() {
+        return bookId != null || (isbn != null && !isbn.isBlank());
+    }
+}
@@ -0,0 +1,12 @@
+package de.tutorial.bookstore.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Angebot für einen kompletten Warenkorb.
+ * {@code net} ist die Summe der Positionen nach Rabatt, MwSt und Versand beziehen sich darauf.
+ */
+public record CartQuote(List<CartQuoteLine> lines, BigDecimal subtotal, BigDecimal discount, BigDecimal net,
+                        BigDecimal vat, BigDecimal shipping, BigDecimal total) {
+}
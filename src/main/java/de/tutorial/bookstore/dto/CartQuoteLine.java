@@ -0,0 +1,10 @@
+package de.tutorial.bookstore.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Bepreiste Warenkorb-Position: Zwischensumme, Mengenrabatt und Positionsbetrag (netto)
+ */
+public record CartQuoteLine(Long bookId, String isbn, String title, int quantity,
+                            BigDecimal unitPrice, BigDecimal subtotal, BigDecimal discount, BigDecimal lineTotal) {
+}
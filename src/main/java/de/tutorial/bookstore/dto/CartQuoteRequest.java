@@ -0,0 +1,9 @@
+package de.tutorial.bookstore.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record CartQuoteRequest(@NotEmpty(message = "Warenkorb ist leer") List<@Valid CartLine> lines) {
+}
@@ -0,0 +1,7 @@
+package de.tutorial.bookstore.dto;
+
+/**
+ * Facette einer Kategorie: Anzahl Bücher und davon lieferbar (Lagerbestand > 0)
+ */
+public record CategoryFacet(String category, int count, int inStock) {
+}
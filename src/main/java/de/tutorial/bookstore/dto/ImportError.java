@@ -0,0 +1,7 @@
+package de.tutorial.bookstore.dto;
+
+/**
+ * Fehler zu einem einzelnen Datensatz eines Bulk-Imports
+ */
+public record ImportError(long line, String isbn, String message) {
+}
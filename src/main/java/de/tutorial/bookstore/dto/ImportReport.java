@@ -0,0 +1,11 @@
+package de.tutorial.bookstore.dto;
+
+import java.util.List;
+
+/**
+ * Ergebnis eines Bulk-Imports. Fehlerhafte Datensätze brechen den Import nicht ab,
+ * sondern werden hier einzeln gemeldet (ab einer Obergrenze nur noch gezählt).
+ */
+public record ImportReport(long received, long imported, long failed,
+                           List<ImportError> errors, boolean errorsTruncated, long durationMillis) {
+}
@@ -0,0 +1,8 @@
+package de.tutorial.bookstore.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record StockChange(@NotNull(message = "Buch-ID ist erforderlich") Long bookId,
+                          @Min(value = 1, message = "Menge muss mindestens 1 sein") int quantity) {
+}
@@ -0,0 +1,12 @@
+package de.tutorial.bookstore.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Mehrere Bestandsänderungen, die gemeinsam gelingen oder gemeinsam scheitern
+ */
+public record StockChangeRequest(@NotEmpty(message = "Keine Positionen angegeben") List<@Valid StockChange> items) {
+}
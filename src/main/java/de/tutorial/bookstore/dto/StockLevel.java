@@ -0,0 +1,7 @@
+package de.tutorial.bookstore.dto;
+
+/**
+ * Lagerbestand eines Buchs nach einer Reservierung oder Freigabe
+ */
+public record StockLevel(Long bookId, int stockQuantity) {
+}
@@ -0,0 +1,24 @@
+package de.tutorial.bookstore.event;
+
+import de.tutorial.bookstore.model.Book;
+
+/**
+ * Wird bei jeder Änderung an einem Buch veröffentlicht.
+ * In-Memory-Strukturen (Suchindex, Caches, ...) halten sich darüber aktuell.
+ */
+public record BookChangedEvent(Type type, Long bookId, Book book) {
+    
+    public enum Type { SAVED, DELETED }
+    
+    public static BookChangedEvent saved(Book book) {
+        return new BookChangedEvent(Type.SAVED, book.getId(), book);
+    }
+    
+    public static BookChangedEvent deleted(Book book) {
+        return new BookChangedEvent(Type.DELETED, book.getId(), book);
+    }
+    
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+}
@@ -0,0 +1,35 @@
+package de.tutorial.bookstore.event;
+
+import de.tutorial.bookstore.model.Book;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA Entity Listener, der Schreibzugriffe auf {@link Book} als {@link BookChangedEvent} veröffentlicht.
+ * Hibernate bezieht die Instanz über den Spring Bean Container.
+ */
+@Component
+public class BookEntityListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    public BookEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Book book) {
+        eventPublisher.publishEvent(BookChangedEvent.saved(book));
+    }
+    
+    @PostRemove
+    public void onRemoved(Book book) {
+        eventPublisher.publishEvent(BookChangedEvent.deleted(book));
+    }
+}
@@ -0,0 +1,67 @@
+package de.tutorial.bookstore.metrics;
+
+/**
+ * Zählt Datenbank-Statements und Cache-Zugriffe des aktuellen Requests.
+ *
+ * Der Zustand hängt am Request-Thread; außerhalb eines Requests (Start, Hintergrund-Jobs)
+ * sind alle record-Methoden wirkungslos. Kein Lock, keine Allokation pro Aufruf.
+ */
+public final class RequestCallStats {
+
+    private static final ThreadLocal<RequestCallStats> CURRENT = new ThreadLocal<>();
+
+    private int dbStatements;
+    private int cacheLookups;
+    private int cacheMisses;
+
+    private RequestCallStats() {
+    }
+
+    public static void begin() {
+        if (CURRENT.get() == null) {
+            CURRENT.set(new RequestCallStats());
+        }
+    }
+
+    /**
+     * Beendet die Zählung und liefert das Ergebnis, oder {@code null}, wenn keine lief
+     */
+    public static RequestCallStats end() {
+        RequestCallStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    public static void recordDbStatement() {
+        RequestCallStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.dbStatements++;
+        }
+    }
+
+    public static void recordCacheLookup() {
+        RequestCallStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.cacheLookups++;
+        }
+    }
+
+    public static void recordCacheMiss() {
+        RequestCallStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.cacheMisses++;
+        }
+    }
+
+    public int dbStatements() {
+        return dbStatements;
+    }
+
+    public int cacheLookups() {
+        return cacheLookups;
+    }
+
+    public int cacheMisses() {
+        return cacheMisses;
+    }
+}
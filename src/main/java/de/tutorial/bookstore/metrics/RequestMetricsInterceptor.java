@@ -0,0 +1,65 @@
+package de.tutorial.bookstore.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Zeichnet pro Request auf, wie viele SQL-Statements und Cache-Zugriffe er ausgelöst hat -
+ * getaggt mit dem URI-Pattern wie {@code http.server.requests}.
+ */
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    static final String DB_STATEMENTS = "bookstore.request.db.statements";
+    static final String CACHE_LOOKUPS = "bookstore.request.cache.lookups";
+    static final String CACHE_MISSES = "bookstore.request.cache.misses";
+
+    private final MeterRegistry registry;
+
+    public RequestMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestCallStats.begin();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Gestreamte Antworten laufen auf anderen Threads weiter - hier nur aufräumen
+        RequestCallStats.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestCallStats stats = RequestCallStats.end();
+        if (stats == null) {
+            return;
+        }
+        String method = request.getMethod();
+        String uri = uri(request);
+        summary(DB_STATEMENTS, method, uri).record(stats.dbStatements());
+        summary(CACHE_LOOKUPS, method, uri).record(stats.cacheLookups());
+        summary(CACHE_MISSES, method, uri).record(stats.cacheMisses());
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Nie die rohe URI taggen: jede ID wäre eine eigene Zeitreihe
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
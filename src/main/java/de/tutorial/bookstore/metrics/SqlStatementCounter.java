@@ -0,0 +1,16 @@
+package de.tutorial.bookstore.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate-Hook, der jedes vorbereitete SQL-Statement dem laufenden Request zurechnet.
+ * Wird über {@code hibernate.session_factory.statement_inspector} eingebunden.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestCallStats.recordDbStatement();
+        return sql;
+    }
+}
@@ -1,15 +1,24 @@
 package de.tutorial.bookstore.model;
 
+import de.tutorial.bookstore.event.BookEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "books")
+@EntityListeners(BookEntityListener.class)
+// Second-Level-Cache: findById ohne SQL; Änderungen über JPA aktualisieren den Eintrag nach dem Commit,
+// JPQL-Updates (Bestandsbuchungen) räumen die Region
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Book {
     
+    // Sequenz statt IDENTITY: IDs werden blockweise vergeben, damit Hibernate Inserts bündeln kann
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "ISBN ist erforderlich")
@@ -40,6 +49,11 @@ public class Book {
     @Column(length = 2000)
     private String description;
     
+    // Zeilen-Version: Optimistic Locking und Grundlage der ETags (primitiv, damit Spring Data
+    // neue Entities weiterhin an der fehlenden ID erkennt)
+    @Version
+    private long version;
+    
     // Konstruktoren
     public Book() {}
     
@@ -90,4 +104,7 @@ public class Book {
     
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
+    
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package de.tutorial.bookstore.pricing;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Unveränderliche, für die Auswertung vorbereitete Form von {@link PricingRules}.
+ *
+ * Der Rabatt wird direkt über die Menge indiziert (ein Array-Zugriff statt if-Kette), ab der
+ * letzten Staffel gilt der letzte Eintrag. Die wenigen Versandstaffeln liegen absteigend vor,
+ * die erste passende gewinnt. Instanzen werden nie verändert, nur im {@link PricingRulesEngine} ersetzt.
+ */
+public final class CompiledPricingRules {
+
+    private final PricingRules rules;
+
+    private final int[] discountPercentByQuantity;
+    private final BigDecimal[] discountRateByQuantity;
+
+    // Absteigend nach Mindestbestellwert
+    private final BigDecimal[] shippingThresholds;
+    private final BigDecimal[] shippingCosts;
+    private final long[] shippingThresholdsCents;
+    private final long[] shippingCostsCents;
+
+    private CompiledPricingRules(PricingRules rules) {
+        this.rules = rules;
+
+        List<PricingRules.DiscountTier> tiers = rules.discountTiers();
+        int size = tiers.isEmpty() ? 1 : tiers.get(tiers.size() - 1).minQuantity() + 1;
+        discountPercentByQuantity = new int[size];
+        discountRateByQuantity = new BigDecimal[size];
+        int tier = -1;
+        for (int quantity = 0; quantity < size; quantity++) {
+            while (tier + 1 < tiers.size() && tiers.get(tier + 1).minQuantity() <= quantity) {
+                tier++;
+            }
+            int percent = tier < 0 ? 0 : tiers.get(tier).percent();
+            discountPercentByQuantity[quantity] = percent;
+            discountRateByQuantity[quantity] = BigDecimal.valueOf(percent, 2);
+        }
+
+        List<PricingRules.ShippingTier> shipping = rules.shippingTiers();
+        int count = shipping.size();
+        shippingThresholds = new BigDecimal[count];
+        shippingCosts = new BigDecimal[count];
+        shippingThresholdsCents = new long[count];
+        shippingCostsCents = new long[count];
+        for (int i = 0; i < count; i++) {
+            PricingRules.ShippingTier source = shipping.get(count - 1 - i);
+            shippingThresholds[i] = source.minOrderValue();
+            shippingCosts[i] = source.cost();
+            shippingThresholdsCents[i] = source.minOrderValue().movePointRight(2).longValueExact();
+            shippingCostsCents[i] = source.cost().movePointRight(2).longValueExact();
+        }
+    }
+
+    public static CompiledPricingRules compile(PricingRules rules) {
+        return new CompiledPricingRules(rules);
+    }
+
+    public PricingRules rules() {
+        return rules;
+    }
+
+    /**
+     * Rabatt in ganzen Prozent, 0 für Mengen bis 0
+     */
+    public int discountPercent(int quantity) {
+        if (quantity <= 0) {
+            return 0;
+        }
+        return discountPercentByQuantity[Math.min(quantity, discountPercentByQuantity.length - 1)];
+    }
+
+    /**
+     * Rabatt als Faktor mit zwei Nachkommastellen (z.B. 0.15), ohne Allokation
+     */
+    public BigDecimal discountRate(int quantity) {
+        if (quantity <= 0) {
+            return discountRateByQuantity[0];
+        }
+        return discountRateByQuantity[Math.min(quantity, discountRateByQuantity.length - 1)];
+    }
+
+    public BigDecimal shippingCost(BigDecimal orderValue) {
+        for (int i = 0; i < shippingThresholds.length; i++) {
+            if (orderValue.compareTo(shippingThresholds[i]) >= 0) {
+                return shippingCosts[i];
+            }
+        }
+        // Unterhalb der niedrigsten Staffel gilt deren Preis
+        return shippingCosts[shippingCosts.length - 1];
+    }
+
+    public long shippingCostCents(long orderValueCents) {
+        for (int i = 0; i < shippingThresholdsCents.length; i++) {
+            if (orderValueCents >= shippingThresholdsCents[i]) {
+                return shippingCostsCents[i];
+            }
+        }
+        return shippingCostsCents[shippingCostsCents.length - 1];
+    }
+
+    /**
+     * Versandkosten der niedrigsten Staffel
+     */
+    public BigDecimal standardShippingCost() {
+        return shippingCosts[shippingCosts.length - 1];
+    }
+
+    /**
+     * Kleinster Bestellwert mit kostenlosem Versand, leer wenn es keinen gibt
+     */
+    public Optional<BigDecimal> freeShippingThreshold() {
+        BigDecimal threshold = null;
+        for (int i = 0; i < shippingCosts.length; i++) {
+            if (shippingCosts[i].signum() == 0) {
+                threshold = shippingThresholds[i];
+            }
+        }
+        return Optional.ofNullable(threshold);
+    }
+}
@@ -0,0 +1,87 @@
+package de.tutorial.bookstore.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Rabatt- und Versandstaffeln, wie sie unter {@code bookstore.pricing} konfiguriert sind.
+ *
+ * Wird schon beim Binden geprüft: ungültige Staffeln verhindern den Start bzw. das Neuladen,
+ * statt später falsche Preise zu liefern. Beträge werden auf zwei Nachkommastellen normiert.
+ */
+public record PricingRules(List<DiscountTier> discountTiers, List<ShippingTier> shippingTiers) {
+
+    public static final String PREFIX = "bookstore.pricing";
+
+    // Obergrenze für min-quantity, die Staffel wird als Array mit einem Eintrag je Menge abgelegt
+    static final int MAX_TIER_QUANTITY = 10_000;
+
+    public PricingRules {
+        discountTiers = discountTiers == null ? List.of() : List.copyOf(discountTiers);
+        shippingTiers = shippingTiers == null ? List.of() : List.copyOf(shippingTiers);
+
+        for (int i = 1; i < discountTiers.size(); i++) {
+            if (discountTiers.get(i).minQuantity() <= discountTiers.get(i - 1).minQuantity()) {
+                throw new IllegalArgumentException("Rabattstaffeln müssen nach min-quantity aufsteigend sortiert sein");
+            }
+        }
+        if (shippingTiers.isEmpty()) {
+            throw new IllegalArgumentException("Mindestens eine Versandstaffel erforderlich");
+        }
+        for (int i = 1; i < shippingTiers.size(); i++) {
+            if (shippingTiers.get(i).minOrderValue().compareTo(shippingTiers.get(i - 1).minOrderValue()) <= 0) {
+                throw new IllegalArgumentException("Versandstaffeln müssen nach min-order-value aufsteigend sortiert sein");
+            }
+        }
+    }
+
+    /**
+     * Ab {@code minQuantity} Büchern gilt {@code percent} Prozent Rabatt (ganze Prozent, wie in der Cent-Variante)
+     */
+    public record DiscountTier(int minQuantity, int percent) {
+
+        public DiscountTier {
+            if (minQuantity < 1 || minQuantity > MAX_TIER_QUANTITY) {
+                throw new IllegalArgumentException("min-quantity muss zwischen 1 und " + MAX_TIER_QUANTITY + " liegen: " + minQuantity);
+            }
+            if (percent < 0 || percent > 100) {
+                throw new IllegalArgumentException("Rabatt muss zwischen 0 und 100 Prozent liegen: " + percent);
+            }
+        }
+    }
+
+    /**
+     * Ab einem Bestellwert von {@code minOrderValue} kostet der Versand {@code cost}
+     */
+    public record ShippingTier(BigDecimal minOrderValue, BigDecimal cost) {
+
+        public ShippingTier {
+            minOrderValue = amount("min-order-value", minOrderValue);
+            cost = amount("cost", cost);
+        }
+    }
+
+    /**
+     * Die bisher fest eingebauten Staffeln: 3/5/10 Bücher → 5/10/15 %, Versand 4,95 € / ab 20 € 2,95 € / ab 50 € frei.
+     * Entspricht der mitgelieferten application.yml.
+     */
+    public static PricingRules defaults() {
+        return new PricingRules(
+                List.of(new DiscountTier(3, 5), new DiscountTier(5, 10), new DiscountTier(10, 15)),
+                List.of(new ShippingTier(new BigDecimal("0.00"), new BigDecimal("4.95")),
+                        new ShippingTier(new BigDecimal("20.00"), new BigDecimal("2.95")),
+                        new ShippingTier(new BigDecimal("50.00"), new BigDecimal("0.00"))));
+    }
+
+    private static BigDecimal amount(String name, BigDecimal value) {
+        if (value == null || value.signum() < 0) {
+            throw new IllegalArgumentException(name + " muss angegeben und nicht negativ sein: " + value);
+        }
+        try {
+            return value.setScale(2, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(name + " darf höchstens zwei Nachkommastellen haben: " + value);
+        }
+    }
+}
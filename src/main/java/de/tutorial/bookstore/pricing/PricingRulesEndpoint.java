@@ -0,0 +1,33 @@
+package de.tutorial.bookstore.pricing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aktive Preisregeln anzeigen und neu laden, nur über den Management-Port:
+ * {@code GET /actuator/pricingrules}, {@code POST /actuator/pricingrules}
+ */
+@Component
+@Endpoint(id = "pricingrules")
+public class PricingRulesEndpoint {
+
+    private final PricingRulesEngine engine;
+
+    @Autowired
+    public PricingRulesEndpoint(PricingRulesEngine engine) {
+        this.engine = engine;
+    }
+
+    @ReadOperation
+    public PricingRules rules() {
+        return engine.current().rules();
+    }
+
+    @WriteOperation
+    public PricingRules reload() {
+        return engine.reload().rules();
+    }
+}
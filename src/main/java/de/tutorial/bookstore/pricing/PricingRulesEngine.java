@@ -0,0 +1,96 @@
+package de.tutorial.bookstore.pricing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Hält die aktuell gültigen Preisregeln und tauscht sie zur Laufzeit aus.
+ *
+ * Leser holen sich mit {@link #current()} einen Snapshot und rechnen ohne Locks darauf;
+ * {@link #reload()} baut neue Regeln vollständig auf und ersetzt dann nur die Referenz.
+ * Ungültige Regeln werfen vor dem Tausch, die alten bleiben dann aktiv.
+ *
+ * Quelle ist {@code bookstore.pricing} aus der Konfiguration bzw. - falls gesetzt - die
+ * YAML-Datei {@code bookstore.pricing.rules-file} mit demselben Aufbau. Nur diese Datei kann sich
+ * zur Laufzeit ändern; neu geladen wird per {@code POST /actuator/pricingrules}.
+ */
+@Component
+public class PricingRulesEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(PricingRulesEngine.class);
+
+    static final String RULES_FILE_PROPERTY = PricingRules.PREFIX + ".rules-file";
+
+    private final Supplier<PricingRules> source;
+    private volatile CompiledPricingRules current;
+
+    @Autowired
+    public PricingRulesEngine(Environment environment) {
+        this(() -> load(environment));
+    }
+
+    /**
+     * Feste Regeln ohne Konfiguration, z.B. für Tests und Benchmarks
+     */
+    public PricingRulesEngine(PricingRules rules) {
+        this(() -> rules);
+    }
+
+    private PricingRulesEngine(Supplier<PricingRules> source) {
+        this.source = source;
+        this.current = CompiledPricingRules.compile(source.get());
+    }
+
+    public CompiledPricingRules current() {
+        return current;
+    }
+
+    /**
+     * Liest die Quelle neu ein und ersetzt die Regeln, wenn sie gültig sind
+     */
+    public CompiledPricingRules reload() {
+        return replace(source.get());
+    }
+
+    public CompiledPricingRules replace(PricingRules rules) {
+        CompiledPricingRules compiled = CompiledPricingRules.compile(rules);
+        current = compiled;
+        log.info("Preisregeln aktiv: {} Rabattstaffeln, {} Versandstaffeln",
+                rules.discountTiers().size(), rules.shippingTiers().size());
+        return compiled;
+    }
+
+    private static PricingRules load(Environment environment) {
+        String file = environment.getProperty(RULES_FILE_PROPERTY);
+        Binder binder = file == null ? Binder.get(environment) : new Binder(ConfigurationPropertySources.from(yaml(Path.of(file))));
+        return binder.bind(PricingRules.PREFIX, PricingRules.class)
+                .orElseThrow(() -> new IllegalStateException("Keine Preisregeln unter " + PricingRules.PREFIX
+                        + (file == null ? "" : " in " + file)));
+    }
+
+    private static List<PropertySource<?>> yaml(Path file) {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException("Preisregel-Datei nicht gefunden: " + file.toAbsolutePath());
+        }
+        try {
+            return new YamlPropertySourceLoader().load("pricing-rules", new FileSystemResource(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
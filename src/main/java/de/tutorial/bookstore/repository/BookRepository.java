@@ -1,23 +1,46 @@
 package de.tutorial.bookstore.repository;
 
 import de.tutorial.bookstore.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Abfragen laufen read-only (mit Replikaten: vom Replikat), sofern keine schreibende Transaktion offen ist.
+ * Schreibende Methoden sind selbst {@code @Transactional}; save/delete aus {@link JpaRepository} ebenso.
+ */
 @Repository
+@Transactional(readOnly = true)
 public interface BookRepository extends JpaRepository<Book, Long> {
     
     Optional<Book> findByIsbn(String isbn);
     
+    /**
+     * Query-Cache: gespeichert werden nur die IDs, die Bücher kommen aus dem Second-Level-Cache.
+     * Jede Schreiboperation auf books macht die gecachten Ergebnisse ungültig.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Book> findByCategory(String category);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Book> findByAuthor(String author);
     
+    /**
+     * Teilstring-Suche. Der Suchbegriff geht unverändert ins LIKE: {@code %} und {@code _} wirken als Platzhalter,
+     * {@code \} als Escape-Zeichen (H2). Der {@link de.tutorial.bookstore.service.BookSearchIndex} bildet das nach.
+     */
     @Query("SELECT b FROM Book b WHERE " +
            "LOWER(b.title) LIKE %:query% OR " +
            "LOWER(b.author) LIKE %:query% OR " +
@@ -26,6 +49,58 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     
     List<Book> findByStockQuantityGreaterThan(Integer quantity);
     
+    /**
+     * Nur die Version - für If-Match-Prüfungen, ohne das Buch zu laden
+     */
+    @Query("SELECT b.version FROM Book b WHERE b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
     @Query("SELECT DISTINCT b.category FROM Book b WHERE b.category IS NOT NULL")
     List<String> findAllCategories();
-}
\ No newline at end of file
+    
+    /**
+     * Prüft beim Bulk-Import mit einer Abfrage pro Chunk, welche ISBNs schon vergeben sind
+     */
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+    
+    /**
+     * Lädt die per ISBN referenzierten Bücher eines Warenkorbs; die per ID kommen aus {@link #findAllById}.
+     * Ein gemeinsames {@code id IN ... OR isbn IN ...} kann H2 nicht über Indizes auflösen.
+     */
+    List<Book> findByIsbnIn(Collection<String> isbns);
+    
+    /**
+     * Reserviert atomar Bestand: die Bedingung im UPDATE verhindert Überverkauf ohne Lesen vorab.
+     * Liefert 0, wenn das Buch fehlt oder nicht genug auf Lager ist.
+     * Schreibend, auch ohne umgebende Transaktion - sonst ginge es mit Replikaten an ein Lese-Replikat.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.stockQuantity = b.stockQuantity - :quantity, b.version = b.version + 1 " +
+           "WHERE b.id = :id AND b.stockQuantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.stockQuantity = b.stockQuantity + :quantity, b.version = b.version + 1 " +
+           "WHERE b.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    /**
+     * Keyset-Pagination: liefert die nächsten Bücher nach der angegebenen ID.
+     * Am Second-Level-Cache vorbei - Index-Aufbau und Blättern über den ganzen Katalog sollen ihn nicht füllen.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    /**
+     * Liest den gesamten Katalog als Cursor - nur innerhalb einer Transaktion verwenden
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Book> streamAllByOrderByIdAsc();
+}
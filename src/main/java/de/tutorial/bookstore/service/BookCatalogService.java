@@ -0,0 +1,158 @@
+package de.tutorial.bookstore.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.tutorial.bookstore.dto.BookPage;
+import de.tutorial.bookstore.model.Book;
+import de.tutorial.bookstore.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Liefert den Buchkatalog seitenweise (Keyset auf {@code id}) oder als Stream,
+ * ohne die komplette Tabelle in den Speicher zu laden; Suchtreffer ebenfalls als Stream
+ */
+@Service
+public class BookCatalogService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static final int DEFAULT_SEARCH_LIMIT = 100;
+    public static final int MAX_SEARCH_LIMIT = 1000;
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    // Kleiner erster Block, damit die ersten Treffer sofort beim Client sind
+    static final int FIRST_SEARCH_BATCH = 10;
+    static final int SEARCH_BATCH = 100;
+
+    private final BookRepository bookRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public BookCatalogService(BookRepository bookRepository, BookSearchIndex bookSearchIndex,
+                              ObjectMapper objectMapper, EntityManager entityManager) {
+        this.bookRepository = bookRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Gibt die Bücher mit einer ID größer {@code afterId} zurück, höchstens {@link #MAX_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public BookPage findPage(Long afterId, Integer limit) {
+        int pageSize = effectivePageSize(limit);
+        long cursor = afterId != null ? afterId : 0L;
+
+        // Ein Datensatz mehr laden, um zu wissen, ob es eine weitere Seite gibt
+        List<Book> rows = bookRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<Book> books = hasMore ? List.copyOf(rows.subList(0, pageSize)) : rows;
+        Long nextAfterId = hasMore ? books.get(books.size() - 1).getId() : null;
+
+        return new BookPage(books, nextAfterId, hasMore);
+    }
+
+    /**
+     * Schreibt den kompletten Katalog als JSON-Array direkt aus dem DB-Cursor in den Stream.
+     * Jedes Buch wird nach dem Schreiben aus dem Persistence Context entfernt,
+     * damit der Speicherverbrauch unabhängig von der Katalog-Größe bleibt.
+     */
+    @Transactional(readOnly = true)
+    public void writeCatalog(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Book.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<Book> books = bookRepository.streamAllByOrderByIdAsc()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+
+            int written = 0;
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                writer.writeValue(generator, book);
+                entityManager.detach(book);
+
+                if (++written % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Schreibt die Suchtreffer als NDJSON (ein Buch pro Zeile), sortiert nach ID, höchstens {@link #MAX_SEARCH_LIMIT}.
+     *
+     * Die IDs kommen lazy aus dem {@link BookSearchIndex}, die Bücher blockweise per {@code findAllById};
+     * nach jedem Block wird geflusht. Zwischen den Blöcken ist keine Transaktion und keine Verbindung offen,
+     * ein langsamer Client blockiert also nichts. Hat der Client aufgelegt, scheitert der nächste Flush
+     * mit einer {@link IOException} und die Suche endet, ohne weitere Bücher zu laden.
+     */
+    public void writeSearchResults(String query, Integer limit, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Book.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<Long> ids = bookSearchIndex.matchingIds(query).limit(effectiveSearchLimit(limit))) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Zeilenumbruch statt des Standard-Trenners (Leerzeichen) zwischen den Werten
+            generator.setRootValueSeparator(null);
+
+            int batchSize = FIRST_SEARCH_BATCH;
+            List<Long> batch = new ArrayList<>(SEARCH_BATCH);
+            Iterator<Long> iterator = ids.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() < batchSize && iterator.hasNext()) {
+                    continue;
+                }
+                List<Book> books = bookRepository.findAllById(batch).stream()
+                        .sorted(Comparator.comparing(Book::getId))
+                        .toList();
+                for (Book book : books) {
+                    writer.writeValue(generator, book);
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                batch.clear();
+                batchSize = SEARCH_BATCH;
+            }
+        }
+    }
+
+    private int effectiveSearchLimit(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_SEARCH_LIMIT;
+        }
+        return Math.min(limit, MAX_SEARCH_LIMIT);
+    }
+
+    private int effectivePageSize(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+}
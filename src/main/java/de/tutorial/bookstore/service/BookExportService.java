@@ -0,0 +1,202 @@
+package de.tutorial.bookstore.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Export des kompletten Katalogs als NDJSON oder CSV, direkt aus einem JDBC-Cursor.
+ *
+ * Die Zeilen werden vorwärts mit fester Fetch-Size gelesen und sofort geschrieben - ohne Entities,
+ * Persistence Context oder Second-Level-Cache. Die Laufzeit wächst linear mit dem Katalog, der Speicherbedarf
+ * bleibt konstant. Die Transaktion ist read-only (mit Replikaten: Export vom Replikat) und hält den Cursor
+ * offen, bis der letzte Datensatz geschrieben ist; bricht der Client ab, endet auch die Abfrage.
+ */
+@Service
+public class BookExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookExportService.class);
+
+    static final int FETCH_SIZE = 1000;
+
+    static final String SELECT_BOOKS =
+            "SELECT id, isbn, title, author, price, stock_quantity, category, description, version FROM books ORDER BY id";
+
+    /**
+     * Spalten in Export-Reihenfolge; die Namen entsprechen den JSON-Feldern und den Import-Spalten
+     */
+    static final String[] COLUMNS =
+            {"id", "isbn", "title", "author", "price", "stockQuantity", "category", "description", "version"};
+
+    public enum Format { NDJSON, CSV }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BookExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Schreibt alle Bücher nach ID sortiert in {@code out}; der Stream wird nicht geschlossen
+     *
+     * @return Anzahl geschriebener Bücher
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        try {
+            long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                try (RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out)) {
+                    return query(connection, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Export: {} Bücher als {} in {} ms", rows, format, (System.nanoTime() - start) / 1_000_000);
+            return rows;
+        } catch (UncheckedIOException e) {
+            // Meist hat der Client die Verbindung geschlossen
+            throw e.getCause();
+        }
+    }
+
+    private static long query(Connection connection, RowWriter writer) throws SQLException, IOException {
+        // H2 materialisiert Ergebnisse sonst vor der ersten Zeile; die Einstellung gilt pro Session
+        boolean h2 = "H2".equals(connection.getMetaData().getDatabaseProductName());
+        if (h2) {
+            setLazyQueryExecution(connection, true);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                SELECT_BOOKS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(FETCH_SIZE);
+            long rows = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    writer.write(rs);
+                    rows++;
+                }
+            }
+            return rows;
+        } finally {
+            if (h2) {
+                setLazyQueryExecution(connection, false);
+            }
+        }
+    }
+
+    private static void setLazyQueryExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+        }
+    }
+
+    private interface RowWriter extends AutoCloseable {
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        /**
+         * Leert die Puffer, schließt aber nicht den Ziel-Stream
+         */
+        @Override
+        void close() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("isbn", rs.getString("isbn"));
+            generator.writeStringField("title", rs.getString("title"));
+            generator.writeStringField("author", rs.getString("author"));
+            generator.writeFieldName("price");
+            BigDecimal price = rs.getBigDecimal("price");
+            if (price == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(price);
+            }
+            generator.writeFieldName("stockQuantity");
+            int stock = rs.getInt("stock_quantity");
+            if (rs.wasNull()) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(stock);
+            }
+            generator.writeStringField("category", rs.getString("category"));
+            generator.writeStringField("description", rs.getString("description"));
+            generator.writeNumberField("version", rs.getLong("version"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+            CsvFormat.writeLine(writer, COLUMNS);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            BigDecimal price = rs.getBigDecimal("price");
+            int stock = rs.getInt("stock_quantity");
+            String stockQuantity = rs.wasNull() ? null : Integer.toString(stock);
+            CsvFormat.writeLine(writer,
+                    Long.toString(rs.getLong("id")),
+                    rs.getString("isbn"),
+                    rs.getString("title"),
+                    rs.getString("author"),
+                    price != null ? price.toPlainString() : null,
+                    stockQuantity,
+                    rs.getString("category"),
+                    rs.getString("description"),
+                    Long.toString(rs.getLong("version")));
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
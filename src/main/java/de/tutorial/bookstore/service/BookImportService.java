@@ -0,0 +1,303 @@
+package de.tutorial.bookstore.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.tutorial.bookstore.dto.ImportError;
+import de.tutorial.bookstore.dto.ImportReport;
+import de.tutorial.bookstore.model.Book;
+import de.tutorial.bookstore.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk-Import von Büchern aus NDJSON oder CSV.
+ *
+ * Der Request-Body wird zeilenweise gelesen und in Chunks verarbeitet:
+ * Validierung, Dubletten-Prüfung (eine Abfrage pro Chunk) und ein Insert-Batch
+ * in einer eigenen Transaktion. Scheitert ein Batch, werden seine Datensätze
+ * einzeln wiederholt, damit nur die fehlerhaften abgelehnt werden.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportService.class);
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 10_000;
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("isbn", "title", "author", "price");
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BookImportService(BookRepository bookRepository, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager, Validator validator,
+                             ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Importiert ein Buch pro Zeile im JSON-Format (application/x-ndjson)
+     */
+    public ImportReport importNdjson(InputStream in) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.add(lineNumber, objectMapper.readValue(line, Book.class));
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "Ungültiges JSON: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Importiert CSV mit Kopfzeile. Pflichtspalten: isbn, title, author, price;
+     * optional: stockQuantity, category, description
+     */
+    public ImportReport importCsv(InputStream in) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String header = reader.readLine();
+        if (header == null) {
+            return run.finish();
+        }
+        Map<String, Integer> columns = csvColumns(header);
+
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.add(lineNumber, toBook(CsvFormat.parseLine(line), columns));
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private Map<String, Integer> csvColumns(String header) {
+        List<String> names = CsvFormat.parseLine(header.replace("\uFEFF", ""));
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(normalizeColumn(names.get(i)), i);
+        }
+        for (String required : REQUIRED_CSV_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV-Spalte fehlt: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static Book toBook(List<String> fields, Map<String, Integer> columns) {
+        if (fields.size() < columns.size()) {
+            throw new IllegalArgumentException("Erwartet " + columns.size() + " Spalten, gefunden " + fields.size());
+        }
+
+        Book book = new Book();
+        book.setIsbn(field(fields, columns, "isbn"));
+        book.setTitle(field(fields, columns, "title"));
+        book.setAuthor(field(fields, columns, "author"));
+        book.setCategory(field(fields, columns, "category"));
+        book.setDescription(field(fields, columns, "description"));
+
+        String price = field(fields, columns, "price");
+        String stock = field(fields, columns, "stockquantity");
+        try {
+            book.setPrice(price != null ? new BigDecimal(price) : null);
+            if (stock != null) {
+                book.setStockQuantity(Integer.valueOf(stock));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültige Zahl in price/stockQuantity");
+        }
+        return book;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String normalizeColumn(String name) {
+        return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Zustand eines laufenden Imports: aktueller Chunk, Zähler und gesammelte Fehler
+     */
+    private final class ImportRun {
+
+        private final long start = System.nanoTime();
+        private final List<PendingRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final Set<String> seenIsbns = new HashSet<>();
+        private final List<ImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        void add(long line, Book book) {
+            received++;
+            chunk.add(new PendingRecord(line, book));
+            if (chunk.size() >= CHUNK_SIZE) {
+                processChunk();
+            }
+        }
+
+        /**
+         * Zeile, aus der sich kein Buch lesen ließ
+         */
+        void reject(long line, String message) {
+            received++;
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportError(line, null, message));
+            }
+        }
+
+        ImportReport finish() {
+            processChunk();
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("Bulk-Import: {} empfangen, {} importiert, {} fehlerhaft in {} ms",
+                    received, imported, failed, durationMillis);
+            return new ImportReport(received, imported, failed, List.copyOf(errors),
+                    failed > errors.size(), durationMillis);
+        }
+
+        private void processChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            List<PendingRecord> valid = new ArrayList<>(chunk.size());
+            for (PendingRecord record : chunk) {
+                String violations = violations(record.book());
+                if (violations != null) {
+                    rejectRecord(record, violations);
+                } else if (!seenIsbns.add(record.book().getIsbn())) {
+                    rejectRecord(record, "ISBN kommt im Import mehrfach vor");
+                } else {
+                    valid.add(record);
+                }
+            }
+            chunk.clear();
+
+            if (!valid.isEmpty()) {
+                Set<String> existing = new HashSet<>(bookRepository.findExistingIsbns(
+                        valid.stream().map(r -> r.book().getIsbn()).toList()));
+                if (!existing.isEmpty()) {
+                    valid.removeIf(record -> {
+                        if (existing.contains(record.book().getIsbn())) {
+                            rejectRecord(record, "ISBN existiert bereits");
+                            return true;
+                        }
+                        return false;
+                    });
+                }
+            }
+
+            if (!valid.isEmpty()) {
+                write(valid);
+            }
+        }
+
+        private void write(List<PendingRecord> records) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persistAll(records));
+                imported += records.size();
+            } catch (RuntimeException batchFailure) {
+                log.debug("Insert-Batch fehlgeschlagen, wiederhole einzeln: {}", batchFailure.getMessage());
+                for (PendingRecord record : records) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> persistAll(List.of(record)));
+                        imported++;
+                    } catch (RuntimeException e) {
+                        rejectRecord(record, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                    }
+                }
+            }
+        }
+
+        private void rejectRecord(PendingRecord record, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportError(record.line(), record.book().getIsbn(), message));
+            }
+        }
+    }
+
+    private void persistAll(List<PendingRecord> records) {
+        for (PendingRecord record : records) {
+            Book book = record.book();
+            // IDs vergibt immer die Sequenz, auch bei Wiederholung nach einem Rollback
+            book.setId(null);
+            book.setVersion(0);
+            entityManager.persist(book);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String violations(Book book) {
+        Set<ConstraintViolation<Book>> violations = validator.validate(book);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private record PendingRecord(long line, Book book) {
+    }
+}
@@ -0,0 +1,127 @@
+package de.tutorial.bookstore.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import de.tutorial.bookstore.metrics.RequestCallStats;
+import de.tutorial.bookstore.dto.BookCacheStats;
+import de.tutorial.bookstore.event.BookChangedEvent;
+import de.tutorial.bookstore.model.Book;
+import de.tutorial.bookstore.repository.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Begrenzter Read-Through Cache vor {@link BookRepository} für Zugriffe per ID und ISBN.
+ *
+ * Der ISBN-Cache speichert nur die Zuordnung ISBN → ID, das Buch selbst liegt im ID-Cache.
+ * Beim Lesen wird geprüft, ob die ISBN noch passt - so führt auch eine geänderte ISBN
+ * nie zu einem veralteten Treffer.
+ */
+@Service
+public class BookLookupCache implements MeterBinder {
+
+    private final BookRepository bookRepository;
+    private final Cache<Long, Book> booksById;
+    private final Cache<String, Long> idsByIsbn;
+
+    @Autowired
+    public BookLookupCache(BookRepository bookRepository,
+                           @Value("${bookstore.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${bookstore.cache.time-to-live:10m}") Duration timeToLive) {
+        this(bookRepository, maximumSize, timeToLive, Ticker.systemTicker());
+    }
+
+    BookLookupCache(BookRepository bookRepository, long maximumSize, Duration timeToLive, Ticker ticker) {
+        this.bookRepository = bookRepository;
+        this.booksById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.idsByIsbn = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Book> findById(Long id) {
+        // Nicht gefundene Bücher werden nicht gecacht (Loader liefert null)
+        RequestCallStats.recordCacheLookup();
+        return Optional.ofNullable(booksById.get(id, key -> {
+            RequestCallStats.recordCacheMiss();
+            return bookRepository.findById(key).orElse(null);
+        }));
+    }
+
+    public Optional<Book> findByIsbn(String isbn) {
+        RequestCallStats.recordCacheLookup();
+        Long id = idsByIsbn.get(isbn, key -> {
+            RequestCallStats.recordCacheMiss();
+            return bookRepository.findByIsbn(key).map(Book::getId).orElse(null);
+        });
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        Optional<Book> book = findById(id);
+        if (book.isPresent() && isbn.equals(book.get().getIsbn())) {
+            return book;
+        }
+
+        // ISBN wurde geändert oder das Buch gelöscht - Zuordnung verwerfen und neu laden
+        idsByIsbn.invalidate(isbn);
+        return bookRepository.findByIsbn(isbn);
+    }
+
+    /**
+     * Invalidiert beide Caches nach jedem Commit, der ein Buch ändert oder löscht
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        evict(event.bookId(), event.book() != null ? event.book().getIsbn() : null);
+    }
+
+    public void evict(Long id, String isbn) {
+        if (id != null) {
+            booksById.invalidate(id);
+        }
+        if (isbn != null) {
+            idsByIsbn.invalidate(isbn);
+        }
+    }
+
+    public void evictAll() {
+        booksById.invalidateAll();
+        idsByIsbn.invalidateAll();
+    }
+
+    /**
+     * Hit-/Miss-/Eviction-Zähler beider Caches als Micrometer-Metriken ({@code cache.*})
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, booksById, "books.by-id");
+        CaffeineCacheMetrics.monitor(registry, idsByIsbn, "books.by-isbn");
+    }
+
+    public BookCacheStats stats() {
+        CacheStats byId = booksById.stats();
+        CacheStats byIsbn = idsByIsbn.stats();
+        return new BookCacheStats(
+                booksById.estimatedSize(), byId.hitCount(), byId.missCount(), byId.evictionCount(),
+                idsByIsbn.estimatedSize(), byIsbn.hitCount(), byIsbn.missCount(), byIsbn.evictionCount());
+    }
+}
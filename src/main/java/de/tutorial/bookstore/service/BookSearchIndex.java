@@ -0,0 +1,318 @@
+package de.tutorial.bookstore.service;
+
+import de.tutorial.bookstore.event.BookChangedEvent;
+import de.tutorial.bookstore.model.Book;
+import de.tutorial.bookstore.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-Memory N-Gramm-Index über Titel, Autor und ISBN.
+ *
+ * Liefert exakt dieselben Treffer wie {@link BookRepository#searchBooks(String)}
+ * ({@code LOWER(feld) LIKE %query%}), ohne die Tabelle zu scannen:
+ * Alle Teilstrings bis Länge 3 werden indiziert, längere Suchbegriffe werden
+ * über das seltenste Trigramm vorgefiltert und anschließend exakt geprüft.
+ * Enthält der Suchbegriff {@code %}, {@code _} oder {@code \}, gelten sie wie im LIKE als Platzhalter
+ * bzw. Escape-Zeichen; vorgefiltert wird dann über das längste feste Teilstück.
+ */
+@Service
+public class BookSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+
+    // Normalisierte Suchfelder je Buch-ID, sortiert nach ID
+    private final NavigableMap<Long, String[]> documents = new ConcurrentSkipListMap<>();
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+
+    // Schreiber werden serialisiert, Leser arbeiten ohne Lock
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Autowired
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Baut den Index beim Start seitenweise aus der Datenbank auf
+     */
+    @PostConstruct
+    public void rebuild() {
+        long start = System.nanoTime();
+        writeLock.lock();
+        try {
+            documents.clear();
+            postings.clear();
+
+            long cursor = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(REBUILD_BATCH_SIZE));
+                for (Book book : batch) {
+                    index(book);
+                    cursor = book.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Suchindex mit {} Büchern und {} N-Grammen in {} ms aufgebaut",
+                documents.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Hält den Index nach erfolgreichem Commit aktuell
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.bookId());
+        } else {
+            index(event.book());
+        }
+    }
+
+    /**
+     * Sucht Bücher - Ergebnis entspricht {@link BookRepository#searchBooks(String)}, sortiert nach ID
+     */
+    public List<Book> search(String query) {
+        List<Long> ids = searchIds(query);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return bookRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Book::getId))
+                .toList();
+    }
+
+    /**
+     * IDs aller Treffer, aufsteigend sortiert
+     */
+    public List<Long> searchIds(String query) {
+        return matchingIds(query).toList();
+    }
+
+    /**
+     * Treffer als lazy Stream in ID-Reihenfolge - wird erst beim Konsumieren ausgewertet
+     */
+    public Stream<Long> matchingIds(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            // LIKE '%%' trifft jedes Buch
+            return documents.keySet().stream();
+        }
+        if (!LikePattern.hasSpecialChars(normalized)) {
+            return candidates(normalized).stream()
+                    .filter(id -> matches(documents.get(id), normalized));
+        }
+        LikePattern like = LikePattern.containing(normalized);
+        Set<Long> ids = like.longestLiteral().isEmpty() ? documents.keySet() : candidates(like.longestLiteral());
+        return ids.stream()
+                .filter(id -> like.matchesAny(documents.get(id)));
+    }
+
+    public void index(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        Long id = book.getId();
+        String[] fields = {normalize(book.getTitle()), normalize(book.getAuthor()), normalize(book.getIsbn())};
+        Set<String> newGrams = grams(fields);
+
+        writeLock.lock();
+        try {
+            String[] previous = documents.put(id, fields);
+            if (previous != null) {
+                for (String gram : grams(previous)) {
+                    if (!newGrams.contains(gram)) {
+                        removePosting(gram, id);
+                    }
+                }
+            }
+            for (String gram : newGrams) {
+                postings.computeIfAbsent(gram, g -> new Posting()).add(id);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            String[] previous = documents.remove(id);
+            if (previous != null) {
+                for (String gram : grams(previous)) {
+                    removePosting(gram, id);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    private Set<Long> candidates(String query) {
+        if (query.length() <= GRAM_LENGTH) {
+            Posting posting = postings.get(query);
+            return posting != null ? posting.ids : Set.of();
+        }
+
+        // Das seltenste Trigramm liefert die kleinste Kandidatenmenge
+        Posting smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            Posting posting = postings.get(query.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return Set.of();
+            }
+            if (smallest == null || posting.size < smallest.size) {
+                smallest = posting;
+            }
+        }
+        return smallest.ids;
+    }
+
+    private void removePosting(String gram, Long id) {
+        Posting posting = postings.get(gram);
+        if (posting != null && posting.remove(id) && posting.size == 0) {
+            postings.remove(gram);
+        }
+    }
+
+    private static boolean matches(String[] fields, String query) {
+        if (fields == null) {
+            return false;
+        }
+        for (String field : fields) {
+            if (field.contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code LIKE '%' || query || '%'} mit {@code \} als Escape-Zeichen (H2-Standard), als Regex nachgebildet
+     */
+    private record LikePattern(Pattern regex, String longestLiteral) {
+
+        private static final char ESCAPE = '\\';
+
+        static boolean hasSpecialChars(String query) {
+            return query.indexOf('%') >= 0 || query.indexOf('_') >= 0 || query.indexOf(ESCAPE) >= 0;
+        }
+
+        static LikePattern containing(String query) {
+            String like = "%" + query + "%";
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            String longest = "";
+            for (int i = 0; i < like.length(); i++) {
+                char c = like.charAt(i);
+                if (c == ESCAPE && i + 1 < like.length()) {
+                    // Das nächste Zeichen gilt wörtlich - bei einem Backslash am Ende des Suchbegriffs das schließende %
+                    literal.append(like.charAt(++i));
+                } else if (c == '%' || c == '_') {
+                    longest = flush(regex, literal, longest);
+                    regex.append(c == '%' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            longest = flush(regex, literal, longest);
+            return new LikePattern(Pattern.compile(regex.toString(), Pattern.DOTALL), longest);
+        }
+
+        boolean matchesAny(String[] fields) {
+            if (fields == null) {
+                return false;
+            }
+            for (String field : fields) {
+                if (regex.matcher(field).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String flush(StringBuilder regex, StringBuilder literal, String longest) {
+            if (literal.isEmpty()) {
+                return longest;
+            }
+            String text = literal.toString();
+            regex.append(Pattern.quote(text));
+            literal.setLength(0);
+            return text.length() > longest.length() ? text : longest;
+        }
+    }
+
+    private static Set<String> grams(String[] fields) {
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int start = 0; start < field.length(); start++) {
+                int maxEnd = Math.min(field.length(), start + GRAM_LENGTH);
+                for (int end = start + 1; end <= maxEnd; end++) {
+                    grams.add(field.substring(start, end));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Posting-Liste eines N-Gramms; die Größe wird separat gezählt,
+     * da {@link ConcurrentSkipListSet#size()} linear ist
+     */
+    private static final class Posting {
+        final Set<Long> ids = new ConcurrentSkipListSet<>();
+        volatile int size;
+
+        void add(Long id) {
+            if (ids.add(id)) {
+                size++;
+            }
+        }
+
+        boolean remove(Long id) {
+            if (ids.remove(id)) {
+                size--;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package de.tutorial.bookstore.service;
+
+import de.tutorial.bookstore.dto.BookSuggestion;
+import de.tutorial.bookstore.event.BookChangedEvent;
+import de.tutorial.bookstore.model.Book;
+import de.tutorial.bookstore.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Präfix-Vervollständigung über Titel und Autor: ein Trie, der in jedem Knoten die besten
+ * {@link #TOP_K} Vorschläge seines Teilbaums bereithält.
+ *
+ * Eine Anfrage läuft nur den Präfix entlang und gibt die Liste des Knotens zurück - unabhängig
+ * davon, wie viele Bücher passen. Eingetragen wird jeder Titel bzw. Autor ab jedem Wortanfang,
+ * "insel" findet also auch "Java ist auch eine Insel". Gleiche Texte mehrerer Bücher (Autoren)
+ * werden zu einem Vorschlag zusammengefasst; Rang ist der summierte Lagerbestand.
+ *
+ * Bei einer Änderung werden nur die Knoten auf den betroffenen Pfaden von unten nach oben neu
+ * berechnet: die besten K eines Knotens stammen immer aus den besten K seiner Kinder und den
+ * Vorschlägen, die im Knoten selbst enden. Schreiber werden serialisiert, Leser arbeiten ohne Lock
+ * auf unveränderlichen Arrays.
+ */
+@Service
+public class BookSuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSuggestIndex.class);
+
+    public static final int TOP_K = 10;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Comparator<BookSuggestion> RANKING = Comparator
+            .comparingLong(BookSuggestion::stock).reversed()
+            .thenComparing(BookSuggestion::text, String.CASE_INSENSITIVE_ORDER);
+
+    private final BookRepository bookRepository;
+
+    private volatile Node root = new Node();
+    // Nur unter dem Write-Lock: Stand je Buch und Vorschläge je normalisiertem Text
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Completion> completions = new HashMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Autowired
+    public BookSuggestIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Baut den Trie beim Start seitenweise aus der Datenbank auf; die Ranglisten werden
+     * am Ende einmal für den ganzen Baum berechnet
+     */
+    @PostConstruct
+    public void rebuild() {
+        long start = System.nanoTime();
+        writeLock.lock();
+        try {
+            entries.clear();
+            completions.clear();
+            Node fresh = new Node();
+
+            long cursor = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(REBUILD_BATCH_SIZE));
+                for (Book book : batch) {
+                    add(fresh, book);
+                    cursor = book.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            recomputeAll(fresh);
+            root = fresh;
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Vorschlags-Trie mit {} Büchern und {} Vorschlägen in {} ms aufgebaut",
+                entries.size(), completions.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Hält den Trie nach erfolgreichem Commit aktuell
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.bookId());
+        } else {
+            index(event.book());
+        }
+    }
+
+    /**
+     * Die besten Vorschläge für den Präfix, höchstens {@link #TOP_K}
+     */
+    public List<BookSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        BookSuggestion[] top = node.top;
+        return List.of(Arrays.copyOf(top, Math.min(limit, top.length)));
+    }
+
+    public void index(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Set<String> touched = new LinkedHashSet<>();
+            Entry previous = entries.remove(book.getId());
+            if (previous != null) {
+                touched.addAll(detach(root, book.getId(), previous));
+            }
+            touched.addAll(add(root, book));
+            touched.forEach(this::recomputePath);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                detach(root, id, previous).forEach(this::recomputePath);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Anzahl unterschiedlicher Vorschlagstexte
+     */
+    public int size() {
+        writeLock.lock();
+        try {
+            return completions.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Trägt Titel und Autor des Buchs ein und liefert die betroffenen Schlüssel
+     */
+    private Set<String> add(Node root, Book book) {
+        Entry entry = new Entry(book.getTitle(), book.getAuthor(),
+                book.getStockQuantity() != null ? Math.max(book.getStockQuantity(), 0) : 0);
+        entries.put(book.getId(), entry);
+
+        Set<String> touched = new LinkedHashSet<>();
+        for (String text : entry.texts()) {
+            String normalized = normalize(text);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            Completion completion = completions.get(normalized);
+            if (completion == null) {
+                completion = new Completion(text);
+                completions.put(normalized, completion);
+                for (String key : keys(normalized)) {
+                    root.insert(key).terminals.add(completion);
+                }
+            }
+            completion.stockByBook.put(book.getId(), entry.stock());
+            completion.refresh();
+            touched.addAll(keys(normalized));
+        }
+        return touched;
+    }
+
+    /**
+     * Entfernt das Buch aus seinen bisherigen Vorschlägen und liefert die betroffenen Schlüssel
+     */
+    private Set<String> detach(Node root, Long id, Entry previous) {
+        Set<String> touched = new LinkedHashSet<>();
+        for (String text : previous.texts()) {
+            String normalized = normalize(text);
+            Completion completion = completions.get(normalized);
+            if (completion == null || completion.stockByBook.remove(id) == null) {
+                continue;
+            }
+            if (completion.stockByBook.isEmpty()) {
+                completions.remove(normalized);
+                for (String key : keys(normalized)) {
+                    Node node = root.find(key);
+                    if (node != null) {
+                        node.terminals.remove(completion);
+                    }
+                }
+            } else {
+                completion.refresh();
+            }
+            touched.addAll(keys(normalized));
+        }
+        return touched;
+    }
+
+    /**
+     * Berechnet die Ranglisten entlang des Schlüssels vom Blatt zur Wurzel neu und entfernt leere Knoten.
+     * Bleibt eine Rangliste gleich oder betrifft ihre Änderung den Elternknoten nicht, ändert sich darüber
+     * nichts mehr - meist endet der Weg weit vor der Wurzel und vor Knoten mit vielen Kindern.
+     */
+    private void recomputePath(String key) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        int depth = 0;
+        while (depth < key.length()) {
+            Node child = path[depth].child(key.charAt(depth));
+            if (child == null) {
+                break;
+            }
+            path[++depth] = child;
+        }
+        BookSuggestion[] before = null;
+        BookSuggestion[] after = null;
+        for (int i = depth; i >= 0; i--) {
+            Node node = path[i];
+            if (before != null && node.unaffectedBy(before, after)) {
+                return;
+            }
+            before = node.top;
+            boolean changed = node.recompute();
+            after = node.top;
+            if (i > 0 && node.isEmpty()) {
+                path[i - 1].removeChild(node.key);
+            } else if (!changed) {
+                return;
+            }
+        }
+    }
+
+    private static void recomputeAll(Node node) {
+        for (Node child : node.children) {
+            recomputeAll(child);
+        }
+        node.recompute();
+    }
+
+    /**
+     * Der Text selbst und jedes Teilstück ab einem Wortanfang
+     */
+    static List<String> keys(String normalized) {
+        List<String> keys = new ArrayList<>();
+        keys.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String title, String author, int stock) {
+
+        List<String> texts() {
+            List<String> texts = new ArrayList<>(2);
+            if (title != null) {
+                texts.add(title);
+            }
+            if (author != null) {
+                texts.add(author);
+            }
+            return texts;
+        }
+    }
+
+    /**
+     * Ein Vorschlagstext mit dem Lagerbestand je Buch; {@link #suggestion} ist der veröffentlichte,
+     * unveränderliche Stand
+     */
+    private static final class Completion {
+        final String text;
+        final Map<Long, Integer> stockByBook = new HashMap<>();
+        BookSuggestion suggestion;
+
+        Completion(String text) {
+            this.text = text.trim();
+        }
+
+        void refresh() {
+            long stock = 0;
+            for (int value : stockByBook.values()) {
+                stock += value;
+            }
+            suggestion = new BookSuggestion(text, stock);
+        }
+    }
+
+    /**
+     * Knoten des Tries. Kinder liegen nach Zeichen sortiert in einem Array und werden - wie die
+     * Rangliste - beim Ändern ersetzt, nie in-place geändert.
+     */
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final BookSuggestion[] NO_SUGGESTIONS = new BookSuggestion[0];
+
+        final char key;
+        volatile Node[] children = NO_CHILDREN;
+        volatile BookSuggestion[] top = NO_SUGGESTIONS;
+        // Nur unter dem Write-Lock: Vorschläge, deren Schlüssel hier endet
+        final Set<Completion> terminals = new LinkedHashSet<>(1);
+
+        Node() {
+            this('\0');
+        }
+
+        Node(char key) {
+            this.key = key;
+        }
+
+        Node child(char c) {
+            Node[] nodes = children;
+            int low = 0;
+            int high = nodes.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midKey = nodes[mid].key;
+                if (midKey < c) {
+                    low = mid + 1;
+                } else if (midKey > c) {
+                    high = mid - 1;
+                } else {
+                    return nodes[mid];
+                }
+            }
+            return null;
+        }
+
+        Node find(String key) {
+            Node node = this;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            return node;
+        }
+
+        Node insert(String key) {
+            Node node = this;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                Node child = node.child(c);
+                if (child == null) {
+                    child = new Node(c);
+                    node.addChild(child);
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        private void addChild(Node child) {
+            Node[] nodes = children;
+            int position = 0;
+            while (position < nodes.length && nodes[position].key < child.key) {
+                position++;
+            }
+            Node[] updated = new Node[nodes.length + 1];
+            System.arraycopy(nodes, 0, updated, 0, position);
+            updated[position] = child;
+            System.arraycopy(nodes, position, updated, position + 1, nodes.length - position);
+            children = updated;
+        }
+
+        void removeChild(char c) {
+            Node[] nodes = children;
+            Node[] updated = Arrays.stream(nodes).filter(node -> node.key != c).toArray(Node[]::new);
+            children = updated.length == 0 ? NO_CHILDREN : updated;
+        }
+
+        boolean isEmpty() {
+            return children.length == 0 && terminals.isEmpty();
+        }
+
+        /**
+         * Beste K aus den eigenen Vorschlägen und den Ranglisten der Kinder; derselbe Text kann über
+         * mehrere Schlüssel (Wortanfänge) doppelt ankommen und zählt nur einmal
+         *
+         * @return ob sich die Rangliste geändert hat
+         */
+        boolean recompute() {
+            List<BookSuggestion> best = new ArrayList<>(TOP_K + 1);
+            for (Completion completion : terminals) {
+                offer(best, completion.suggestion);
+            }
+            for (Node child : children) {
+                // Die Rangliste des Kindes ist sortiert: ab dem ersten zu schwachen Eintrag kommt keiner mehr in Frage
+                for (BookSuggestion suggestion : child.top) {
+                    if (!offer(best, suggestion)) {
+                        break;
+                    }
+                }
+            }
+            BookSuggestion[] updated = best.toArray(NO_SUGGESTIONS);
+            if (Arrays.equals(top, updated)) {
+                return false;
+            }
+            top = updated;
+            return true;
+        }
+
+        /**
+         * Sortiert den Vorschlag in die Bestenliste ein; {@code false}, wenn er zu schwach ist
+         */
+        private static boolean offer(List<BookSuggestion> best, BookSuggestion suggestion) {
+            if (best.size() == TOP_K && RANKING.compare(suggestion, best.get(TOP_K - 1)) >= 0) {
+                return false;
+            }
+            if (containsText(best, suggestion.text())) {
+                return true;
+            }
+            int position = best.size();
+            while (position > 0 && RANKING.compare(suggestion, best.get(position - 1)) < 0) {
+                position--;
+            }
+            best.add(position, suggestion);
+            if (best.size() > TOP_K) {
+                best.remove(TOP_K);
+            }
+            return true;
+        }
+
+        /**
+         * {@code true}, wenn die Änderung der Rangliste eines Kindes von {@code before} auf {@code after}
+         * diese Rangliste nicht ändern kann: sie ist voll, enthält nichts vom alten Stand des Kindes
+         * und der neue Stand liegt komplett hinter ihrem letzten Platz
+         */
+        boolean unaffectedBy(BookSuggestion[] before, BookSuggestion[] after) {
+            List<BookSuggestion> current = Arrays.asList(top);
+            if (current.size() < TOP_K) {
+                return false;
+            }
+            for (BookSuggestion suggestion : before) {
+                if (containsText(current, suggestion.text())) {
+                    return false;
+                }
+            }
+            BookSuggestion last = current.get(current.size() - 1);
+            for (BookSuggestion suggestion : after) {
+                if (RANKING.compare(suggestion, last) < 0 || containsText(current, suggestion.text())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean containsText(List<BookSuggestion> suggestions, String text) {
+            for (BookSuggestion suggestion : suggestions) {
+                if (suggestion.text().equals(text)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
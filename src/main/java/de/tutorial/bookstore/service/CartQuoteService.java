@@ -0,0 +1,132 @@
+package de.tutorial.bookstore.service;
+
+import de.tutorial.bookstore.dto.CartLine;
+import de.tutorial.bookstore.dto.CartQuote;
+import de.tutorial.bookstore.dto.CartQuoteLine;
+import de.tutorial.bookstore.model.Book;
+import de.tutorial.bookstore.repository.BookRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Bepreist einen kompletten Warenkorb in einem Aufruf.
+ *
+ * Alle Bücher werden mit höchstens zwei Abfragen (per ID, per ISBN) geladen, die Positionen über die Cent-Variante
+ * von {@link PriceCalculationService} berechnet (identisch gerundet wie die BigDecimal-API).
+ * MwSt und Versand werden einmal auf die Nettosumme berechnet.
+ */
+@Service
+public class CartQuoteService {
+
+    // Ab dieser Positionsanzahl (B2B-Warenkörbe) wird parallel bepreist
+    static final int PARALLEL_THRESHOLD = 2_000;
+
+    private final BookRepository bookRepository;
+    private final PriceCalculationService priceCalculationService;
+
+    @Autowired
+    public CartQuoteService(BookRepository bookRepository, PriceCalculationService priceCalculationService) {
+        this.bookRepository = bookRepository;
+        this.priceCalculationService = priceCalculationService;
+    }
+
+    @Timed(value = "bookstore.cart.quote", histogram = true)
+    public CartQuote quote(List<CartLine> lines) {
+        Catalog catalog = load(lines);
+
+        Stream<CartLine> stream = lines.size() >= PARALLEL_THRESHOLD ? lines.parallelStream() : lines.stream();
+        List<PricedLine> priced = stream
+                .map(line -> price(line, catalog.resolve(line)))
+                .toList();
+
+        long subtotalCents = 0;
+        long discountCents = 0;
+        for (PricedLine line : priced) {
+            subtotalCents = Math.addExact(subtotalCents, line.subtotalCents());
+            discountCents = Math.addExact(discountCents, line.discountCents());
+        }
+
+        BigDecimal net = PriceCalculationService.fromCents(subtotalCents - discountCents);
+        BigDecimal vat = priceCalculationService.calculateVAT(net);
+        BigDecimal shipping = priceCalculationService.calculateShippingCost(net);
+
+        return new CartQuote(
+                priced.stream().map(PricedLine::toDto).toList(),
+                PriceCalculationService.fromCents(subtotalCents),
+                PriceCalculationService.fromCents(discountCents),
+                net,
+                vat,
+                shipping,
+                net.add(vat).add(shipping));
+    }
+
+    private Catalog load(List<CartLine> lines) {
+        Set<Long> ids = new HashSet<>();
+        Set<String> isbns = new HashSet<>();
+        for (CartLine line : lines) {
+            if (line.bookId() != null) {
+                ids.add(line.bookId());
+            } else {
+                isbns.add(line.isbn());
+            }
+        }
+
+        Map<Long, Book> byId = new HashMap<>();
+        Map<String, Book> byIsbn = new HashMap<>();
+        if (!ids.isEmpty()) {
+            register(bookRepository.findAllById(ids), byId, byIsbn);
+        }
+        if (!isbns.isEmpty()) {
+            register(bookRepository.findByIsbnIn(isbns), byId, byIsbn);
+        }
+        return new Catalog(byId, byIsbn);
+    }
+
+    private static void register(List<Book> books, Map<Long, Book> byId, Map<String, Book> byIsbn) {
+        for (Book book : books) {
+            byId.put(book.getId(), book);
+            byIsbn.put(book.getIsbn(), book);
+        }
+    }
+
+    private PricedLine price(CartLine line, Book book) {
+        long priceCents = PriceCalculationService.toCents(book.getPrice());
+        int quantity = line.quantity();
+        long subtotal = Math.multiplyExact(priceCents, quantity);
+        long discount = priceCalculationService.quantityDiscountCents(priceCents, quantity);
+        return new PricedLine(book, quantity, priceCents, subtotal, discount);
+    }
+
+    private record Catalog(Map<Long, Book> byId, Map<String, Book> byIsbn) {
+
+        Book resolve(CartLine line) {
+            Book book = line.bookId() != null ? byId.get(line.bookId()) : byIsbn.get(line.isbn());
+            if (book == null) {
+                throw new UnknownBookException(line.bookId() != null
+                        ? "Buch mit ID " + line.bookId() + " nicht gefunden"
+                        : "Buch mit ISBN " + line.isbn() + " nicht gefunden");
+            }
+            return book;
+        }
+    }
+
+    private record PricedLine(Book book, int quantity, long unitPriceCents, long subtotalCents, long discountCents) {
+
+        CartQuoteLine toDto() {
+            return new CartQuoteLine(book.getId(), book.getIsbn(), book.getTitle(), quantity,
+                    PriceCalculationService.fromCents(unitPriceCents),
+                    PriceCalculationService.fromCents(subtotalCents),
+                    PriceCalculationService.fromCents(discountCents),
+                    PriceCalculationService.fromCents(subtotalCents - discountCents));
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package de.tutorial.bookstore.service;
+
+import de.tutorial.bookstore.dto.CategoryFacet;
+import de.tutorial.bookstore.event.BookChangedEvent;
+import de.tutorial.bookstore.model.Book;
+import de.tutorial.bookstore.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Kategorie-Facetten im Speicher: Anzahl Bücher und Anzahl lieferbarer Bücher je Kategorie.
+ *
+ * Ersetzt {@code SELECT DISTINCT category} und den Tabellen-Scan beim Blättern nach Kategorie.
+ * Wird beim Start einmal aufgebaut und danach über {@link BookChangedEvent} inkrementell gepflegt.
+ *
+ * Zusätzlich führt der Service Versionszähler für den Gesamtkatalog und je Kategorie (Basis der
+ * ETags der Listen-Endpunkte). Die Versionen stammen aus einem monoton steigenden Zähler und
+ * gelten nur zusammen mit der {@link #epoch()} - nach einem Neustart passt kein altes ETag mehr.
+ */
+@Service
+public class CategoryFacetService {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryFacetService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+
+    // Zuletzt bekannter Stand je Buch, um bei Änderungen die alte Kategorie abzuziehen
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Facet> facets = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> categoryVersions = new ConcurrentHashMap<>();
+    private volatile long catalogVersion;
+    private volatile long epoch = System.currentTimeMillis();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Autowired
+    public CategoryFacetService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            entries.clear();
+            facets.clear();
+            categoryVersions.clear();
+            catalogVersion = 0;
+            epoch = Math.max(System.currentTimeMillis(), epoch + 1);
+
+            long cursor = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(REBUILD_BATCH_SIZE));
+                for (Book book : batch) {
+                    update(book);
+                    cursor = book.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Kategorie-Facetten für {} Bücher in {} Kategorien aufgebaut", entries.size(), facets.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.bookId());
+        } else {
+            update(event.book());
+        }
+    }
+
+    /**
+     * Alle Kategorien mit Zählern, alphabetisch sortiert
+     */
+    public List<CategoryFacet> facets() {
+        return facets.entrySet().stream()
+                .map(e -> new CategoryFacet(e.getKey(), e.getValue().count, e.getValue().inStock))
+                .toList();
+    }
+
+    /**
+     * Kategorienamen - entspricht {@link BookRepository#findAllCategories()}
+     */
+    public List<String> categories() {
+        return List.copyOf(facets.keySet());
+    }
+
+    /**
+     * Bücher einer Kategorie, nach ID sortiert. Unbekannte Kategorien lösen keine Abfrage aus,
+     * sonst werden nur die bekannten IDs per Primärschlüssel geladen.
+     */
+    public List<Book> findBooks(String category) {
+        Facet facet = category != null ? facets.get(category) : null;
+        if (facet == null) {
+            return List.of();
+        }
+        return bookRepository.findAllById(facet.ids).stream()
+                .sorted(Comparator.comparing(Book::getId))
+                .toList();
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Ändert sich bei jeder Änderung an einem beliebigen Buch
+     */
+    public long catalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Ändert sich, sobald ein Buch die Kategorie betritt, verlässt oder darin geändert wird
+     */
+    public long categoryVersion(String category) {
+        return category != null ? categoryVersions.getOrDefault(category, 0L) : 0L;
+    }
+
+    public void update(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        Entry next = new Entry(book.getCategory(), book.isAvailable());
+
+        writeLock.lock();
+        try {
+            Entry previous = entries.put(book.getId(), next);
+            if (previous != null) {
+                subtract(previous, book.getId());
+            }
+            add(next, book.getId());
+            bumpVersions(previous, next);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                subtract(previous, id);
+                bumpVersions(previous, null);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void bumpVersions(Entry previous, Entry next) {
+        long version = ++catalogVersion;
+        if (previous != null && previous.category() != null) {
+            categoryVersions.put(previous.category(), version);
+        }
+        if (next != null && next.category() != null) {
+            categoryVersions.put(next.category(), version);
+        }
+    }
+
+    private void add(Entry entry, Long id) {
+        if (entry.category() == null) {
+            return;
+        }
+        Facet facet = facets.computeIfAbsent(entry.category(), c -> new Facet());
+        facet.ids.add(id);
+        facet.count++;
+        if (entry.inStock()) {
+            facet.inStock++;
+        }
+    }
+
+    private void subtract(Entry entry, Long id) {
+        if (entry.category() == null) {
+            return;
+        }
+        Facet facet = facets.get(entry.category());
+        if (facet == null || !facet.ids.remove(id)) {
+            return;
+        }
+        facet.count--;
+        if (entry.inStock()) {
+            facet.inStock--;
+        }
+        if (facet.count == 0) {
+            facets.remove(entry.category());
+        }
+    }
+
+    private record Entry(String category, boolean inStock) {
+    }
+
+    /**
+     * Zähler werden nur unter dem Write-Lock geändert, Leser sehen sie über volatile
+     */
+    private static final class Facet {
+        final Set<Long> ids = new ConcurrentSkipListSet<>();
+        volatile int count;
+        volatile int inStock;
+    }
+}
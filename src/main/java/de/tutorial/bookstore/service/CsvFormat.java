@@ -0,0 +1,97 @@
+package de.tutorial.bookstore.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimaler CSV-Support (RFC 4180) für Import und Export des Katalogs.
+ * Felder in Anführungszeichen dürfen Kommas und verdoppelte Anführungszeichen enthalten.
+ * Zeilenumbrüche in Feldern werden beim Schreiben korrekt gequotet, beim Lesen aber nicht unterstützt.
+ */
+final class CsvFormat {
+
+    static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private static final String LINE_END = "\r\n";
+
+    private CsvFormat() {
+    }
+
+    /**
+     * Schreibt eine Zeile; {@code null} wird zum leeren Feld
+     */
+    static void writeLine(Writer out, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(SEPARATOR);
+            }
+            writeField(out, fields[i]);
+        }
+        out.write(LINE_END);
+    }
+
+    private static void writeField(Writer out, String field) throws IOException {
+        if (field == null) {
+            return;
+        }
+        if (!needsQuotes(field)) {
+            out.write(field);
+            return;
+        }
+        out.write(QUOTE);
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == QUOTE) {
+                out.write(QUOTE);
+            }
+            out.write(c);
+        }
+        out.write(QUOTE);
+    }
+
+    private static boolean needsQuotes(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == SEPARATOR || c == QUOTE || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == QUOTE && i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    current.append(QUOTE);
+                    i++;
+                } else if (c == QUOTE) {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Anführungszeichen nicht geschlossen");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,22 @@
+package de.tutorial.bookstore.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Nicht genug Bücher auf Lager - die gesamte Reservierung wird zurückgerollt
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long bookId;
+
+    public InsufficientStockException(Long bookId, int requested) {
+        super("Nicht genügend Bücher auf Lager für Buch " + bookId + " (angefragt: " + requested + ")");
+        this.bookId = bookId;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+}
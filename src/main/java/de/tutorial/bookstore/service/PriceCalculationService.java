@@ -1,45 +1,76 @@
 package de.tutorial.bookstore.service;
 
+import de.tutorial.bookstore.pricing.PricingRules;
+import de.tutorial.bookstore.pricing.PricingRulesEngine;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+/**
+ * Preisberechnung in zwei gleichwertigen Varianten:
+ * {@link BigDecimal} für die API und {@code long}-Cent-Beträge ohne Allokationen
+ * für heiße Pfade wie Warenkorb-Kalkulationen. Beide runden identisch (HALF_UP auf Cent).
+ *
+ * Rabatt- und Versandstaffeln kommen aus dem {@link PricingRulesEngine}; jede Berechnung liest
+ * genau einen Snapshot der Regeln, auch wenn sie währenddessen neu geladen werden.
+ */
 @Service
 public class PriceCalculationService {
     
     private static final BigDecimal VAT_RATE = new BigDecimal("0.07"); // 7% MwSt für Bücher
     
+    private static final int VAT_PERCENT = 7;
+
+    // Nur die BigDecimal-API wird gemessen; die Cent-Variante ist für Schleifen gedacht,
+    // dort würde der Timer mehr kosten als die Berechnung selbst
+    static final String TIMER = "bookstore.pricing";
+
+    private final PricingRulesEngine pricingRules;
+
+    /**
+     * Mit den Standardregeln, ohne Spring (Tests, Benchmarks)
+     */
+    public PriceCalculationService() {
+        this(new PricingRulesEngine(PricingRules.defaults()));
+    }
+
+    @Autowired
+    public PriceCalculationService(PricingRulesEngine pricingRules) {
+        this.pricingRules = pricingRules;
+    }
+
     /**
      * Berechnet den Mengenrabatt basierend auf der Anzahl
      */
+    @Timed(TIMER)
     public BigDecimal calculateQuantityDiscount(BigDecimal price, int quantity) {
         BigDecimal subtotal = price.multiply(BigDecimal.valueOf(quantity));
-        BigDecimal discountRate = getDiscountRate(quantity);
+        return discount(subtotal, quantity);
+    }
+
+    private BigDecimal discount(BigDecimal subtotal, int quantity) {
+        BigDecimal discountRate = pricingRules.current().discountRate(quantity);
         BigDecimal discount = subtotal.multiply(discountRate);
         
         return discount.setScale(2, RoundingMode.HALF_UP);
     }
     
     /**
-     * Gibt den Rabattsatz basierend auf der Menge zurück
+     * Mengenrabatt in ganzen Prozent nach der aktuellen Staffel
      */
-    private BigDecimal getDiscountRate(int quantity) {
-        if (quantity >= 10) {
-            return new BigDecimal("0.15"); // 15% Rabatt
-        } else if (quantity >= 5) {
-            return new BigDecimal("0.10"); // 10% Rabatt
-        } else if (quantity >= 3) {
-            return new BigDecimal("0.05"); // 5% Rabatt
-        }
-        return BigDecimal.ZERO;
+    public int discountPercent(int quantity) {
+        return pricingRules.current().discountPercent(quantity);
     }
     
     /**
      * Berechnet den Endpreis inklusive Rabatt
      */
+    @Timed(TIMER)
     public BigDecimal calculateFinalPrice(BigDecimal price, int quantity) {
         BigDecimal subtotal = price.multiply(BigDecimal.valueOf(quantity));
-        BigDecimal discount = calculateQuantityDiscount(price, quantity);
+        BigDecimal discount = discount(subtotal, quantity);
         
         return subtotal.subtract(discount).setScale(2, RoundingMode.HALF_UP);
     }
@@ -47,6 +78,7 @@ public class PriceCalculationService {
     /**
      * Berechnet die Mehrwertsteuer
      */
+    @Timed(TIMER)
     public BigDecimal calculateVAT(BigDecimal netPrice) {
         return netPrice.multiply(VAT_RATE).setScale(2, RoundingMode.HALF_UP);
     }
@@ -54,6 +86,7 @@ public class PriceCalculationService {
     /**
      * Berechnet den Gesamtpreis inklusive MwSt
      */
+    @Timed(TIMER)
     public BigDecimal calculateTotalWithVAT(BigDecimal netPrice) {
         BigDecimal vat = calculateVAT(netPrice);
         return netPrice.add(vat).setScale(2, RoundingMode.HALF_UP);
@@ -62,13 +95,71 @@ public class PriceCalculationService {
     /**
      * Berechnet Versandkosten basierend auf Bestellwert
      */
+    @Timed(TIMER)
     public BigDecimal calculateShippingCost(BigDecimal orderValue) {
-        if (orderValue.compareTo(new BigDecimal("50.00")) >= 0) {
-            return BigDecimal.ZERO; // Kostenloser Versand ab 50€
-        } else if (orderValue.compareTo(new BigDecimal("20.00")) >= 0) {
-            return new BigDecimal("2.95");
-        } else {
-            return new BigDecimal("4.95");
-        }
-    }
-}
\ No newline at end of file
+        return pricingRules.current().shippingCost(orderValue);
+    }
+
+    // Cent-Variante ohne Allokationen
+
+    /**
+     * Mengenrabatt in Cent, entspricht {@link #calculateQuantityDiscount(BigDecimal, int)}
+     */
+    public long quantityDiscountCents(long priceCents, int quantity) {
+        return discountCents(Math.multiplyExact(priceCents, quantity), quantity);
+    }
+
+    /**
+     * Endpreis in Cent, entspricht {@link #calculateFinalPrice(BigDecimal, int)}
+     */
+    public long finalPriceCents(long priceCents, int quantity) {
+        long subtotal = Math.multiplyExact(priceCents, quantity);
+        return subtotal - discountCents(subtotal, quantity);
+    }
+
+    /**
+     * Mehrwertsteuer in Cent, entspricht {@link #calculateVAT(BigDecimal)}
+     */
+    public long vatCents(long netCents) {
+        return percentOf(netCents, VAT_PERCENT);
+    }
+
+    /**
+     * Gesamtpreis mit MwSt in Cent, entspricht {@link #calculateTotalWithVAT(BigDecimal)}
+     */
+    public long totalWithVatCents(long netCents) {
+        return netCents + vatCents(netCents);
+    }
+
+    /**
+     * Versandkosten in Cent, entspricht {@link #calculateShippingCost(BigDecimal)}
+     */
+    public long shippingCostCents(long orderValueCents) {
+        return pricingRules.current().shippingCostCents(orderValueCents);
+    }
+
+    /**
+     * Wandelt einen Betrag mit höchstens zwei Nachkommastellen in Cent um
+     *
+     * @throws ArithmeticException bei mehr als zwei Nachkommastellen
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private long discountCents(long subtotalCents, int quantity) {
+        return percentOf(subtotalCents, discountPercent(quantity));
+    }
+
+    /**
+     * cents * percent / 100, kaufmännisch gerundet (HALF_UP, also bei negativen Beträgen von null weg)
+     */
+    private static long percentOf(long cents, int percent) {
+        long hundredths = Math.multiplyExact(cents, percent);
+        return hundredths >= 0 ? (hundredths + 50) / 100 : -((-hundredths + 50) / 100);
+    }
+}
@@ -0,0 +1,94 @@
+package de.tutorial.bookstore.service;
+
+import de.tutorial.bookstore.dto.StockChange;
+import de.tutorial.bookstore.dto.StockLevel;
+import de.tutorial.bookstore.event.BookChangedEvent;
+import de.tutorial.bookstore.model.Book;
+import de.tutorial.bookstore.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reserviert und gibt Lagerbestand frei, ohne Lost Updates oder Überverkauf.
+ *
+ * Jede Position ist ein einzelnes bedingtes UPDATE - die Datenbank prüft und bucht atomar,
+ * es gibt kein Lesen-Prüfen-Schreiben wie bei {@link Book#decreaseStock(int)}.
+ * Ein Batch läuft in einer Transaktion und sperrt die Zeilen immer in ID-Reihenfolge,
+ * damit sich parallele Batches nicht gegenseitig blockieren (Deadlock).
+ */
+@Service
+public class StockService {
+
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public StockService(BookRepository bookRepository, ApplicationEventPublisher eventPublisher) {
+        this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Reserviert alle Positionen oder keine
+     *
+     * @throws InsufficientStockException wenn eine Position nicht genug Bestand hat
+     * @throws UnknownBookException wenn ein Buch nicht existiert
+     */
+    @Transactional
+    public List<StockLevel> reserve(List<StockChange> changes) {
+        Map<Long, Integer> quantities = merge(changes);
+        quantities.forEach((bookId, quantity) -> {
+            if (bookRepository.reserveStock(bookId, quantity) == 0) {
+                if (!bookRepository.existsById(bookId)) {
+                    throw new UnknownBookException("Buch mit ID " + bookId + " nicht gefunden");
+                }
+                throw new InsufficientStockException(bookId, quantity);
+            }
+        });
+        return levels(quantities);
+    }
+
+    /**
+     * Gibt reservierten Bestand wieder frei, z.B. bei Stornierung
+     *
+     * @throws UnknownBookException wenn ein Buch nicht existiert
+     */
+    @Transactional
+    public List<StockLevel> release(List<StockChange> changes) {
+        Map<Long, Integer> quantities = merge(changes);
+        quantities.forEach((bookId, quantity) -> {
+            if (bookRepository.releaseStock(bookId, quantity) == 0) {
+                throw new UnknownBookException("Buch mit ID " + bookId + " nicht gefunden");
+            }
+        });
+        return levels(quantities);
+    }
+
+    /**
+     * Fasst Positionen je Buch zusammen, sortiert nach ID (feste Sperr-Reihenfolge)
+     */
+    private static Map<Long, Integer> merge(List<StockChange> changes) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockChange change : changes) {
+            quantities.merge(change.bookId(), change.quantity(), Math::addExact);
+        }
+        return quantities;
+    }
+
+    private List<StockLevel> levels(Map<Long, Integer> quantities) {
+        // Bulk-UPDATEs umgehen die Entity-Listener: Änderung für Caches und Indizes selbst melden
+        List<Book> books = bookRepository.findAllById(quantities.keySet());
+        books.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.saved(book)));
+        return books.stream()
+                .sorted(Comparator.comparing(Book::getId))
+                .map(book -> new StockLevel(book.getId(), book.getStockQuantity()))
+                .toList();
+    }
+}
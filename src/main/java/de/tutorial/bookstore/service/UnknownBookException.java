@@ -0,0 +1,15 @@
+package de.tutorial.bookstore.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Ein referenziertes Buch existiert nicht
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UnknownBookException extends RuntimeException {
+
+    public UnknownBookException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,268 @@
+package de.tutorial.bookstore.snapshot;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Schreibgeschützter Katalog-Snapshot als Memory-Mapped-Datei - Lookups ohne Hibernate, H2 und Entities.
+ *
+ * Aufbau (big-endian):
+ * <pre>
+ * Header       magic, version, Anzahl Bücher, Anzahl mit Kategorie, Anzahl Strings, 0, Erstellzeit (32 Byte)
+ * Datensätze   je Buch 48 Byte, nach ID sortiert: id, version, Preis in Cent, Bestand,
+ *              ISBN, Titel, Autor, Kategorie, Beschreibung (als String-Nummer)
+ * ISBN-Index   Datensatznummern nach ISBN sortiert
+ * Kategorie    Datensatznummern nach Kategorie und ID sortiert (nur Bücher mit Kategorie)
+ * Offsets      Beginn jedes Strings in den String-Daten, plus Ende
+ * Strings      UTF-8
+ * </pre>
+ * Gesucht wird binär: per ID in den Datensätzen, per ISBN bzw. Kategorie im jeweiligen Index.
+ * Alle Zugriffe sind absolut und damit ohne Synchronisation threadsicher. Erzeugt wird ein Snapshot
+ * mit dem {@link CatalogSnapshotWriter}.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x424B5331; // "BKS1"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 48;
+
+    static final int NULL_STRING = -1;
+    static final int NULL_STOCK = Integer.MIN_VALUE;
+    static final long NULL_PRICE = Long.MIN_VALUE;
+    static final int PRICE_SCALE = 2;
+
+    private static final int ID = 0;
+    private static final int VERSION = 8;
+    private static final int PRICE = 16;
+    private static final int STOCK = 24;
+    private static final int ISBN = 28;
+    private static final int TITLE = 32;
+    private static final int AUTHOR = 36;
+    private static final int CATEGORY = 40;
+    private static final int DESCRIPTION = 44;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int categorized;
+    private final Instant createdAt;
+    private final int isbnIndex;
+    private final int categoryIndex;
+    private final int stringOffsets;
+    private final int stringData;
+
+    private CatalogSnapshot(Path file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("Kein Katalog-Snapshot im Format " + FORMAT_VERSION + ": " + file);
+        }
+        this.size = buffer.getInt(8);
+        this.categorized = buffer.getInt(12);
+        int strings = buffer.getInt(16);
+        this.createdAt = Instant.ofEpochMilli(buffer.getLong(24));
+
+        this.isbnIndex = HEADER_SIZE + size * RECORD_SIZE;
+        this.categoryIndex = isbnIndex + size * Integer.BYTES;
+        this.stringOffsets = categoryIndex + categorized * Integer.BYTES;
+        this.stringData = stringOffsets + (strings + 1) * Integer.BYTES;
+        if (stringData > buffer.capacity() || stringData + buffer.getInt(stringData - Integer.BYTES) != buffer.capacity()) {
+            throw new IllegalStateException("Katalog-Snapshot unvollständig: " + file);
+        }
+    }
+
+    /**
+     * Bildet die Datei in den Speicher ab. Die Abbildung bleibt gültig, bis der Snapshot nicht mehr
+     * referenziert wird - auch wenn die Datei inzwischen gelöscht oder ersetzt wurde.
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Katalog-Snapshot größer als 2 GB: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(file, buffer);
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * Datensatznummer des Buchs oder -1
+     */
+    public int findById(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = id(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Datensatznummer des Buchs oder -1
+     */
+    public int findByIsbn(String isbn) {
+        byte[] key = isbn.getBytes(StandardCharsets.UTF_8);
+        int position = lowerBound(isbnIndex, size, ISBN, key);
+        if (position < size) {
+            int record = buffer.getInt(isbnIndex + position * Integer.BYTES);
+            if (compare(stringRef(record, ISBN), key) == 0) {
+                return record;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Datensatznummern aller Bücher der Kategorie, nach ID sortiert
+     */
+    public int[] findByCategory(String category) {
+        byte[] key = category.getBytes(StandardCharsets.UTF_8);
+        int from = lowerBound(categoryIndex, categorized, CATEGORY, key);
+        int to = from;
+        while (to < categorized
+                && compare(stringRef(buffer.getInt(categoryIndex + to * Integer.BYTES), CATEGORY), key) == 0) {
+            to++;
+        }
+        int[] records = new int[to - from];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = buffer.getInt(categoryIndex + (from + i) * Integer.BYTES);
+        }
+        return records;
+    }
+
+    public long id(int record) {
+        return buffer.getLong(offset(record) + ID);
+    }
+
+    public long version(int record) {
+        return buffer.getLong(offset(record) + VERSION);
+    }
+
+    /**
+     * Schreibt das Buch als JSON-Objekt mit denselben Feldern wie die {@code Book}-Entity.
+     * Strings werden als UTF-8 durchgereicht, der Generator muss daher in einen {@code OutputStream} schreiben.
+     */
+    public void writeBook(int record, JsonGenerator generator) throws IOException {
+        int offset = offset(record);
+        long price = buffer.getLong(offset + PRICE);
+        int stock = buffer.getInt(offset + STOCK);
+
+        generator.writeStartObject();
+        generator.writeNumberField("id", buffer.getLong(offset + ID));
+        writeString(generator, "isbn", buffer.getInt(offset + ISBN));
+        writeString(generator, "title", buffer.getInt(offset + TITLE));
+        writeString(generator, "author", buffer.getInt(offset + AUTHOR));
+        generator.writeFieldName("price");
+        if (price == NULL_PRICE) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(BigDecimal.valueOf(price, PRICE_SCALE));
+        }
+        generator.writeFieldName("stockQuantity");
+        if (stock == NULL_STOCK) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(stock);
+        }
+        writeString(generator, "category", buffer.getInt(offset + CATEGORY));
+        writeString(generator, "description", buffer.getInt(offset + DESCRIPTION));
+        generator.writeNumberField("version", buffer.getLong(offset + VERSION));
+        generator.writeBooleanField("available", stock != NULL_STOCK && stock > 0);
+        generator.writeEndObject();
+    }
+
+    private void writeString(JsonGenerator generator, String field, int string) throws IOException {
+        generator.writeFieldName(field);
+        if (string == NULL_STRING) {
+            generator.writeNull();
+            return;
+        }
+        int start = stringStart(string);
+        byte[] utf8 = new byte[stringEnd(string) - start];
+        buffer.get(start, utf8);
+        generator.writeUTF8String(utf8, 0, utf8.length);
+    }
+
+    /**
+     * Erste Position im Index, deren String nicht kleiner als {@code key} ist
+     */
+    private int lowerBound(int index, int length, int field, byte[] key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int record = buffer.getInt(index + mid * Integer.BYTES);
+            if (compare(stringRef(record, field), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Vergleicht einen String der Tabelle byteweise (vorzeichenlos) mit {@code key}, ohne ihn zu dekodieren
+     */
+    private int compare(int string, byte[] key) {
+        int start = stringStart(string);
+        int length = stringEnd(string) - start;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int diff = Byte.compareUnsigned(buffer.get(start + i), key[i]);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private int stringRef(int record, int field) {
+        return buffer.getInt(offset(record) + field);
+    }
+
+    private int stringStart(int string) {
+        return stringData + buffer.getInt(stringOffsets + string * Integer.BYTES);
+    }
+
+    private int stringEnd(int string) {
+        return stringData + buffer.getInt(stringOffsets + (string + 1) * Integer.BYTES);
+    }
+
+    private int offset(int record) {
+        if (record < 0 || record >= size) {
+            throw new IndexOutOfBoundsException("Datensatz " + record + " von " + size);
+        }
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,198 @@
+package de.tutorial.bookstore.snapshot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.tutorial.bookstore.event.BookChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hält den aktuellen {@link CatalogSnapshot} und baut ihn nach Änderungen neu.
+ *
+ * Der Snapshot wird beim Start gebaut. Nach einem {@link BookChangedEvent} wartet der Service
+ * {@code bookstore.snapshot.rebuild-delay} und baut dann einmal für alle bis dahin gemeldeten Änderungen neu -
+ * ein Import mit tausend Büchern kostet also einen Neubau, nicht tausend. Gelesen wird per JDBC direkt
+ * in die Datei, ohne Entities und ohne den Second-Level-Cache zu berühren. Der fertige Snapshot ersetzt
+ * den alten mit einer Referenz-Zuweisung; laufende Leser rechnen auf dem alten zu Ende.
+ *
+ * Bis zum Neubau liefert der Snapshot den vorigen Stand, auch beim Bestand.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    static final String SELECT_BOOKS =
+            "SELECT id, isbn, title, author, price, stock_quantity, category, description, version FROM books ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory;
+    private final String configuredDirectory;
+    private final Duration rebuildDelay;
+    private final ScheduledExecutorService rebuilder;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final AtomicLong generation = new AtomicLong();
+
+    private Path directory;
+    private boolean temporaryDirectory;
+    private boolean closed;
+    private volatile CatalogSnapshot current;
+
+    @Autowired
+    public CatalogSnapshotService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                  @Value("${bookstore.snapshot.directory:}") String directory,
+                                  @Value("${bookstore.snapshot.rebuild-delay:2s}") Duration rebuildDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonFactory = objectMapper.getFactory();
+        this.configuredDirectory = directory;
+        this.rebuildDelay = rebuildDelay;
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        // Ohne Verzeichnis ein eigenes je Instanz, damit sich mehrere Kontexte (Tests) nicht in die Quere kommen
+        temporaryDirectory = configuredDirectory.isBlank();
+        directory = temporaryDirectory
+                ? Files.createTempDirectory("bookstore-snapshot")
+                : Files.createDirectories(Path.of(configuredDirectory));
+        rebuild();
+    }
+
+    public CatalogSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Baut einen neuen Snapshot aus der Tabelle {@code books} und tauscht ihn aus
+     */
+    public synchronized CatalogSnapshot rebuild() {
+        if (closed) {
+            return current;
+        }
+        CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+        jdbcTemplate.query(SELECT_BOOKS, rs -> {
+            writer.add(rs.getLong("id"), rs.getString("isbn"), rs.getString("title"), rs.getString("author"),
+                    rs.getBigDecimal("price"), rs.getObject("stock_quantity", Integer.class),
+                    rs.getString("category"), rs.getString("description"), rs.getLong("version"));
+        });
+
+        try {
+            Path file = writer.write(directory.resolve("catalog-" + generation.incrementAndGet() + ".snapshot"));
+            CatalogSnapshot previous = current;
+            current = CatalogSnapshot.open(file);
+            log.info("Katalog-Snapshot mit {} Büchern aktiv ({} Byte)", writer.size(), Files.size(file));
+            if (previous != null) {
+                // Die Abbildung des alten Snapshots bleibt für laufende Leser gültig (unter Windows bleibt die Datei liegen)
+                deleteQuietly(previous.file());
+            }
+            return current;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Katalog-Snapshot konnte nicht geschrieben werden", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    /**
+     * Plant einen Neubau nach {@code rebuild-delay}; ist schon einer geplant, deckt er diese Änderung mit ab
+     */
+    public void scheduleRebuild() {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.schedule(() -> {
+            rebuildPending.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Neubau des Katalog-Snapshots fehlgeschlagen, der bisherige bleibt aktiv", e);
+            }
+        }, rebuildDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ein Buch als JSON, direkt aus dem Snapshot
+     */
+    public byte[] toJson(CatalogSnapshot snapshot, int record) {
+        return json(generator -> snapshot.writeBook(record, generator));
+    }
+
+    /**
+     * Mehrere Bücher als JSON-Array, direkt aus dem Snapshot
+     */
+    public byte[] toJson(CatalogSnapshot snapshot, int[] records) {
+        return json(generator -> {
+            generator.writeStartArray();
+            for (int record : records) {
+                snapshot.writeBook(record, generator);
+            }
+            generator.writeEndArray();
+        });
+    }
+
+    /**
+     * Stoppt Neubauten und räumt die Snapshot-Datei sowie ein selbst angelegtes Temp-Verzeichnis weg
+     */
+    @PreDestroy
+    public synchronized void close() {
+        closed = true;
+        rebuilder.shutdownNow();
+        if (current != null) {
+            deleteQuietly(current.file());
+        }
+        if (temporaryDirectory && directory != null) {
+            deleteQuietly(directory);
+        }
+    }
+
+    private byte[] json(JsonWork work) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            work.write(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("{} nicht gelöscht: {}", file, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonWork {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
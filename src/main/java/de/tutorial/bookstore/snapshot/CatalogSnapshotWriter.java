@@ -0,0 +1,154 @@
+package de.tutorial.bookstore.snapshot;
+
+import de.tutorial.bookstore.model.Book;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Baut einen {@link CatalogSnapshot} auf: Bücher in aufsteigender ID-Reihenfolge hinzufügen, dann schreiben.
+ *
+ * Gleiche Strings (Autoren, Kategorien) landen nur einmal in der String-Tabelle. Geschrieben wird in eine
+ * temporäre Datei, die dann atomar an ihren Platz verschoben wird - ein Leser sieht nie eine halbe Datei.
+ */
+public class CatalogSnapshotWriter {
+
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+    private final DataOutputStream records = new DataOutputStream(recordBytes);
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private final List<byte[]> strings = new ArrayList<>();
+    // String-Nummern je Datensatz für die beiden Such-Indizes
+    private final List<Integer> isbns = new ArrayList<>();
+    private final List<Integer> categories = new ArrayList<>();
+    private long lastId = Long.MIN_VALUE;
+
+    public CatalogSnapshotWriter add(Book book) {
+        return add(book.getId(), book.getIsbn(), book.getTitle(), book.getAuthor(), book.getPrice(),
+                book.getStockQuantity(), book.getCategory(), book.getDescription(), book.getVersion());
+    }
+
+    /**
+     * Ein Buch in Spaltenreihenfolge der Tabelle {@code books}
+     */
+    public CatalogSnapshotWriter add(long id, String isbn, String title, String author, BigDecimal price,
+                                     Integer stockQuantity, String category, String description, long version) {
+        if (id <= lastId) {
+            throw new IllegalArgumentException("IDs müssen aufsteigend sein: " + id + " nach " + lastId);
+        }
+        if (isbn == null) {
+            throw new IllegalArgumentException("Buch " + id + " ohne ISBN");
+        }
+        lastId = id;
+
+        int isbnString = string(isbn);
+        int categoryString = string(category);
+        isbns.add(isbnString);
+        categories.add(categoryString);
+        try {
+            records.writeLong(id);
+            records.writeLong(version);
+            records.writeLong(price == null ? CatalogSnapshot.NULL_PRICE
+                    : price.setScale(CatalogSnapshot.PRICE_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+            records.writeInt(stockQuantity == null ? CatalogSnapshot.NULL_STOCK : stockQuantity);
+            records.writeInt(isbnString);
+            records.writeInt(string(title));
+            records.writeInt(string(author));
+            records.writeInt(categoryString);
+            records.writeInt(string(description));
+        } catch (IOException e) {
+            // ByteArrayOutputStream wirft nicht
+            throw new IllegalStateException(e);
+        }
+        return this;
+    }
+
+    public int size() {
+        return isbns.size();
+    }
+
+    /**
+     * Schreibt den Snapshot nach {@code target}; eine vorhandene Datei wird atomar ersetzt
+     */
+    public Path write(Path target) throws IOException {
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+                writeTo(out);
+            }
+            return Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeTo(DataOutputStream out) throws IOException {
+        int[] isbnIndex = sortedRecords(isbns, false);
+        int[] categoryIndex = sortedRecords(categories, true);
+
+        out.writeInt(CatalogSnapshot.MAGIC);
+        out.writeInt(CatalogSnapshot.FORMAT_VERSION);
+        out.writeInt(size());
+        out.writeInt(categoryIndex.length);
+        out.writeInt(strings.size());
+        out.writeInt(0);
+        out.writeLong(System.currentTimeMillis());
+
+        recordBytes.writeTo(out);
+        for (int record : isbnIndex) {
+            out.writeInt(record);
+        }
+        for (int record : categoryIndex) {
+            out.writeInt(record);
+        }
+        int offset = 0;
+        for (byte[] string : strings) {
+            out.writeInt(offset);
+            offset = Math.addExact(offset, string.length);
+        }
+        out.writeInt(offset);
+        for (byte[] string : strings) {
+            out.write(string);
+        }
+    }
+
+    /**
+     * Datensatznummern sortiert nach dem String (UTF-8, vorzeichenlos wie beim Lesen), bei Gleichheit nach ID.
+     * Datensätze ohne String fehlen im Index.
+     */
+    private int[] sortedRecords(List<Integer> keys, boolean skipNull) {
+        Comparator<Integer> byKey = Comparator.comparing(record -> strings.get(keys.get(record)), Arrays::compareUnsigned);
+        return IntStream.range(0, keys.size())
+                .filter(record -> !skipNull || keys.get(record) != CatalogSnapshot.NULL_STRING)
+                .boxed()
+                .sorted(byKey.thenComparing(Comparator.naturalOrder()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private int string(String value) {
+        if (value == null) {
+            return CatalogSnapshot.NULL_STRING;
+        }
+        return stringIndex.computeIfAbsent(value, v -> {
+            strings.add(v.getBytes(StandardCharsets.UTF_8));
+            return strings.size() - 1;
+        });
+    }
+}
@@ -1,10 +1,21 @@
+-- IDs werden in Blöcken zu 50 vergeben (siehe Book.id); die Testdaten nutzen feste IDs unter 100
+CREATE SEQUENCE IF NOT EXISTS books_seq START WITH 100 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS books (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR books_seq PRIMARY KEY,
     isbn VARCHAR(255) NOT NULL UNIQUE,
     title VARCHAR(200) NOT NULL,
     author VARCHAR(255) NOT NULL,
     price DECIMAL(10,2) NOT NULL,
     stock_quantity INTEGER DEFAULT 0,
     category VARCHAR(255),
-    description VARCHAR(2000)
-);
\ No newline at end of file
+    description VARCHAR(2000),
+    version BIGINT DEFAULT 0 NOT NULL
+);
+
+-- Blättern nach Kategorie (findByCategory) ohne Tabellen-Scan
+CREATE INDEX IF NOT EXISTS idx_books_category ON books(category);
+
+-- Weitere Abfragen aus BookRepository (findByAuthor, findByStockQuantityGreaterThan); abgesichert durch BookQueryPlanSpec
+CREATE INDEX IF NOT EXISTS idx_books_author ON books(author);
+CREATE INDEX IF NOT EXISTS idx_books_stock_quantity ON books(stock_quantity);
@@ -0,0 +1,112 @@
+package de.tutorial
+
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Title
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+
+@Title("Inkrementelle FitNesse-Läufe über Inhalts-Hashes")
+class FitNesseResultCacheSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    Path wiki
+    Path classes
+
+    def setup() {
+        wiki = Files.createDirectories(dir.resolve("FitNesseRoot"))
+        classes = Files.createDirectories(dir.resolve("classes"))
+        page("", "!define TEST_SYSTEM {slim}")
+        page("SetUp", "!|import|\n|de.tutorial|\n")
+        page("PriceCalculations", "!|script|de.tutorial.ShardPlanner|\n!include .Shared")
+        page("Shared", "|check|x|1|")
+        page("ShippingCosts", "!|de.tutorial.Other|")
+        def bytes = getClass().getResourceAsStream("/de/tutorial/ShardPlanner.class").bytes
+        Files.createDirectories(classes.resolve("de/tutorial"))
+        Files.write(classes.resolve("de/tutorial/ShardPlanner.class"), bytes)
+    }
+
+    def "sollte für unveränderte Eingaben denselben Fingerprint liefern"() {
+        expect:
+        fingerprint("PriceCalculations") == fingerprint("PriceCalculations")
+        fingerprint("PriceCalculations") != fingerprint("ShippingCosts")
+    }
+
+    def "sollte Änderungen an eingebundenen Seiten erkennen"() {
+        given:
+        def before = fingerprint("PriceCalculations")
+
+        when:
+        page(changed, "geändert")
+
+        then:
+        (fingerprint("PriceCalculations") != before) == affected
+
+        where:
+        changed         || affected
+        "Shared"        || true
+        "SetUp"         || true
+        ""              || true
+        "ShippingCosts" || false
+    }
+
+    def "sollte geänderten Fixture-Bytecode erkennen"() {
+        given:
+        def before = fingerprint("PriceCalculations")
+        def file = classes.resolve("de/tutorial/ShardPlanner.class")
+
+        when:
+        Files.write(file, [0] as byte[], StandardOpenOption.APPEND)
+
+        then:
+        fingerprint("PriceCalculations") != before
+    }
+
+    def "sollte ausgeführte Seiten cachen und ihr JUnit-XML wiederherstellen"() {
+        given:
+        def junitDir = dir.resolve("junit")
+        def result = new FitNesseInstance.PageResult("PriceCalculations", true, 80L, null,
+            [new FitNesseResults.Page("PriceCalculations", new FitNesseResults.Counts(3, 0, 0, 0), 80L,
+                [decisionTable_0: new FitNesseResults.Counts(3, 0, 0, 0)], [])], false)
+        new JUnitXmlReport(junitDir).write(result.pages().first())
+        def cache = new FitNesseResultCache(dir.resolve("cache"))
+        cache.store("PriceCalculations", "abc", result, junitDir)
+        cache.save()
+        junitDir.toFile().deleteDir()
+
+        when:
+        def reloaded = new FitNesseResultCache(dir.resolve("cache"))
+        def hit = reloaded.lookup("PriceCalculations", "abc", junitDir)
+
+        then:
+        hit.get().cached()
+        hit.get().passed()
+        hit.get().millis() == 80L
+        Files.exists(junitDir.resolve("TEST-FitNesse.PriceCalculations.xml"))
+        reloaded.lookup("PriceCalculations", "def", junitDir).empty
+    }
+
+    def "sollte Seiten, die nicht laufen konnten, nicht cachen"() {
+        given:
+        def cache = new FitNesseResultCache(dir.resolve("cache"))
+
+        when:
+        cache.store("ShippingCosts", "abc", FitNesseInstance.PageResult.failed("ShippingCosts", 5L, "HTTP 500"), dir)
+
+        then:
+        cache.lookup("ShippingCosts", "abc", dir).empty
+    }
+
+    private String fingerprint(String page) {
+        new PageFingerprint(wiki, dir, [classes]).of(page)
+    }
+
+    private void page(String path, String content) {
+        def pageDir = Files.createDirectories(path ? wiki.resolve(path) : wiki)
+        Files.writeString(pageDir.resolve("content.txt"), content)
+    }
+}
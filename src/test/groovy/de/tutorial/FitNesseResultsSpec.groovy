@@ -0,0 +1,122 @@
+package de.tutorial
+
+import org.w3c.dom.Element
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Title
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Path
+
+import javax.xml.parsers.DocumentBuilderFactory
+
+@Title("FitNesse-Ergebnisse streamend lesen und als JUnit-XML schreiben")
+class FitNesseResultsSpec extends Specification {
+
+    static final String RESULT = '''<?xml version="1.0"?>
+<testResults>
+  <rootPath>PriceCalculations</rootPath>
+  <result>
+    <counts><right>2</right><wrong>1</wrong><ignores>0</ignores><exceptions>1</exceptions></counts>
+    <runTimeInMillis>82</runTimeInMillis>
+    <content>&lt;table class="pass"&gt;...&lt;/table&gt;</content>
+    <relativePageName>PriceCalculations</relativePageName>
+    <instructions>
+      <instructionResult>
+        <expectation><status>pass</status><instructionId>scriptTable_0_0</instructionId></expectation>
+      </instructionResult>
+      <instructionResult>
+        <expectation><instructionId>scriptTable_0_1</instructionId></expectation>
+      </instructionResult>
+      <instructionResult>
+        <expectation><status>pass</status><instructionId>decisionTable_1_3</instructionId></expectation>
+      </instructionResult>
+      <instructionResult>
+        <expectation><status>fail</status><instructionId>decisionTable_1_4</instructionId>
+          <evaluationMessage>[5%] expected [10%]</evaluationMessage></expectation>
+      </instructionResult>
+      <instructionResult>
+        <expectation><status>error</status><instructionId>decisionTable_1_5</instructionId>
+          <evaluationMessage>No Method setA[1]
+ Available methods: ...</evaluationMessage></expectation>
+      </instructionResult>
+    </instructions>
+  </result>
+  <finalCounts><right>0</right><wrong>1</wrong><ignores>0</ignores><exceptions>0</exceptions></finalCounts>
+  <totalRunTimeInMillis>262</totalRunTimeInMillis>
+</testResults>'''
+
+    @TempDir
+    Path dir
+
+    def "sollte Zähler, Laufzeiten und Tabellen aus dem Ergebnis lesen"() {
+        when:
+        def report = parse(RESULT)
+        def page = report.pages().first()
+
+        then:
+        !report.passed()
+        report.runTimeMillis() == 262L
+        report.finalCounts().wrong() == 1
+        page.name() == "PriceCalculations"
+        page.runTimeMillis() == 82L
+        page.counts() == new FitNesseResults.Counts(2, 1, 0, 1)
+
+        and: "Tabellen über das Präfix der Instruction-ID, Aktionen ohne Status zählen nicht"
+        page.tables() == [
+            scriptTable_0  : new FitNesseResults.Counts(1, 0, 0, 0),
+            decisionTable_1: new FitNesseResults.Counts(1, 1, 0, 1)
+        ]
+        page.failures() == [
+            "decisionTable_1_4: fail - [5%] expected [10%]",
+            "decisionTable_1_5: error - No Method setA[1]"
+        ]
+    }
+
+    def "sollte eine Seite ohne Fehler als bestanden werten"() {
+        expect:
+        parse(RESULT.replace("<wrong>1</wrong><ignores>0</ignores><exceptions>1</exceptions></counts>",
+            "<wrong>0</wrong><ignores>0</ignores><exceptions>0</exceptions></counts>")).passed()
+    }
+
+    def "sollte je Tabelle einen JUnit-Testfall schreiben"() {
+        given:
+        def page = parse(RESULT).pages().first()
+
+        when:
+        def suite = read(new JUnitXmlReport(dir).write(page))
+        def cases = suite.getElementsByTagName("testcase")
+
+        then:
+        suite.getAttribute("name") == "FitNesse.PriceCalculations"
+        suite.getAttribute("tests") == "2"
+        suite.getAttribute("failures") == "0"
+        suite.getAttribute("errors") == "1"
+        suite.getAttribute("time") == "0.082"
+        cases.item(0).getAttribute("name") == "decisionTable_1"
+        cases.item(0).textContent.contains("No Method setA[1]")
+        cases.item(1).getAttribute("name") == "scriptTable_0"
+        !cases.item(1).hasChildNodes()
+    }
+
+    def "sollte eine nicht ausführbare Seite als Fehler melden"() {
+        given:
+        def result = FitNesseInstance.PageResult.failed("ShippingCosts", 10L, "HTTP 500")
+
+        when:
+        def suite = read(new JUnitXmlReport(dir).write(result.pages().first()))
+
+        then:
+        !result.passed()
+        suite.getAttribute("errors") == "1"
+        suite.getElementsByTagName("error").item(0).textContent.contains("HTTP 500")
+    }
+
+    private static Element read(Path file) {
+        DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file.toFile()).documentElement
+    }
+
+    private static FitNesseResults.Report parse(String xml) {
+        FitNesseResults.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))
+    }
+}
@@ -0,0 +1,68 @@
+package de.tutorial
+
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Title
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+@Title("Verteilung der FitNesse-Seiten auf parallele Instanzen")
+class ShardPlannerSpec extends Specification {
+
+    @TempDir
+    Path root
+
+    def "sollte die längste Seite zuerst auf den leichtesten Shard legen"() {
+        when:
+        def shards = ShardPlanner.plan([a: 5L, b: 4L, c: 3L, d: 3L, e: 3L], 2)
+
+        then:
+        shards*.pages() == [["a", "d"], ["b", "c", "e"]]
+        shards*.estimatedMillis() == [8L, 10L]
+    }
+
+    def "sollte nie mehr Shards als Seiten anlegen"() {
+        expect:
+        ShardPlanner.plan([a: 1L, b: 1L], 8).size() == 2
+        ShardPlanner.plan([a: 1L], 0).size() == 1
+    }
+
+    def "sollte Testseiten finden und Setup- sowie FitNesse-eigene Seiten auslassen"() {
+        given:
+        page("PriceCalculations", "<properties><Test>true</Test></properties>")
+        page("AllTests", "<properties><Suite>true</Suite></properties>")
+        page("AllTests.NestedTest", null)
+        page("SetUp", null)
+        page("FrontPage", "<properties><Edit>true</Edit></properties>")
+        page("FitNesse.SuiteAcceptanceTests.SomeTest", null)
+
+        expect:
+        new FitNessePages(root).discoverTests() == ["AllTests.NestedTest", "PriceCalculations"]
+    }
+
+    def "sollte die Laufzeit aus den letzten Ergebnissen mitteln"() {
+        given:
+        def history = Files.createDirectories(root.resolve("files/testResults/PriceCalculations"))
+        Files.writeString(history.resolve("20250101000000_1_0_0_0.xml"), run("<totalRunTimeInMillis>9000</totalRunTimeInMillis>"))
+        Files.writeString(history.resolve("20250102000000_1_0_0_0.xml"), run("<result><runTimeInMillis>100</runTimeInMillis></result>"))
+        Files.writeString(history.resolve("20250103000000_1_0_0_0.xml"), run("<totalRunTimeInMillis>200</totalRunTimeInMillis>"))
+        Files.writeString(history.resolve("20250104000000_1_0_0_0.xml"), run("<totalRunTimeInMillis>300</totalRunTimeInMillis>"))
+
+        expect: "nur die drei jüngsten Läufe zählen"
+        new FitNessePages(root).recordedMillis("PriceCalculations").asLong == 200L
+        !new FitNessePages(root).recordedMillis("Unknown").present
+    }
+
+    private static String run(String body) {
+        "<?xml version=\"1.0\"?><testResults>${body}</testResults>"
+    }
+
+    private void page(String path, String properties) {
+        def dir = Files.createDirectories(root.resolve(path.replace('.', '/')))
+        Files.writeString(dir.resolve("content.txt"), "")
+        if (properties != null) {
+            Files.writeString(dir.resolve("properties.xml"), properties)
+        }
+    }
+}
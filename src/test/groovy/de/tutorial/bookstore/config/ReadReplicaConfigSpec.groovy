@@ -0,0 +1,113 @@
+package de.tutorial.bookstore.config
+
+import com.zaxxer.hikari.HikariDataSource
+import de.tutorial.bookstore.datasource.ReplicaRoutingDataSource
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.repository.BookRepository
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.http.HttpHeaders
+import org.springframework.http.MediaType
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.datasource.DriverManagerDataSource
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Specification
+import spock.lang.Tag
+import spock.lang.Title
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
+
+@Tag("integration")
+@Title("Lese-/Schreib-Trennung mit H2-Datenbanken als Replikate")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = [
+    "spring.datasource.url=jdbc:h2:mem:rw-primary;DB_CLOSE_DELAY=-1",
+    "bookstore.datasource.replicas[0].url=jdbc:h2:mem:rw-replica1;DB_CLOSE_DELAY=-1",
+    "bookstore.datasource.replicas[0].username=sa",
+    "bookstore.datasource.replicas[0].initialize=true",
+    "bookstore.datasource.replicas[1].url=jdbc:h2:mem:rw-replica2;DB_CLOSE_DELAY=-1",
+    "bookstore.datasource.replicas[1].username=sa",
+    "bookstore.datasource.replicas[1].initialize=true"
+])
+class ReadReplicaConfigSpec extends Specification {
+
+    static final String ISBN = "978-3-16-148410-7"
+
+    @Autowired
+    BookRepository bookRepository
+
+    @Autowired
+    ReplicaRoutingDataSource replicaRoutingDataSource
+
+    @Autowired
+    HikariDataSource primaryDataSource
+
+    @Autowired
+    TransactionTemplate transactionTemplate
+
+    @Autowired
+    MockMvc mockMvc
+
+    def "sollte Lesezugriffe an die Replikate und Schreibzugriffe an den Primary geben"() {
+        expect: "Beide Replikate sind mit den Beispieldaten erreichbar"
+        replicaRoutingDataSource.availableReplicas() == 2
+        bookRepository.findByIsbn("978-3-16-148410-0").present
+
+        when: "Ein Buch gespeichert wird"
+        def book = new Book(ISBN, "Nur im Primary", "Erika Mustermann", new BigDecimal("9.99"))
+        book = bookRepository.save(book)
+
+        then: "Sehen es lesende Repository-Aufrufe nicht - zwischen den H2-Datenbanken wird nicht repliziert"
+        bookRepository.findByIsbn(ISBN).empty
+
+        and: "Innerhalb einer schreibenden Transaktion wird vom Primary gelesen"
+        transactionTemplate.execute { bookRepository.findByIsbn(ISBN).present }
+
+        cleanup:
+        bookRepository.deleteById(book.id)
+    }
+
+    def "sollte auch Suche und Kategorien aus dem Repository von den Replikaten lesen"() {
+        given: "Ein Buch, das nur in den Replikaten steht"
+        replicas().each {
+            it.update("INSERT INTO books (id, isbn, title, author, price, category) VALUES (90, ?, ?, ?, 9.99, ?)",
+                    "978-3-16-148410-9", "Nur im Replikat", "Erika Mustermann", "Replikat-Kategorie")
+        }
+
+        expect: "Zweimal, damit reihum beide Replikate gefragt werden"
+        bookRepository.searchBooks("nur im replikat")*.isbn == ["978-3-16-148410-9"]
+        bookRepository.searchBooks("nur im replikat")*.isbn == ["978-3-16-148410-9"]
+        "Replikat-Kategorie" in bookRepository.findAllCategories()
+
+        cleanup:
+        replicas().each { it.update("DELETE FROM books WHERE id = 90") }
+    }
+
+    def "sollte in einem Request nach dem Lesen vom Replikat auf den Primary schreiben"() {
+        given:
+        def primary = new JdbcTemplate(primaryDataSource)
+        long version = primary.queryForObject("SELECT version FROM books WHERE id = 2", Long)
+
+        when: "PUT prüft erst die Version (read-only) und speichert dann"
+        def response = mockMvc.perform(put("/api/books/2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"2-${version}\"")
+                .content('{"isbn": "978-0-321-35668-0", "title": "Effective Java, 3rd", "author": "Joshua Bloch", "price": 45.50}'))
+
+        then:
+        response.andExpect(status().isOk())
+
+        and: "Die Änderung steht im Primary, nicht in den Replikaten"
+        primary.queryForObject("SELECT title FROM books WHERE id = 2", String) == "Effective Java, 3rd"
+        replicas().every { it.queryForObject("SELECT title FROM books WHERE id = 2", String) == "Effective Java" }
+    }
+
+    private static List<JdbcTemplate> replicas() {
+        ["rw-replica1", "rw-replica2"].collect {
+            new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:${it};DB_CLOSE_DELAY=-1", "sa", ""))
+        }
+    }
+}
@@ -1,17 +1,31 @@
 package de.tutorial.bookstore.controller
 
+import de.tutorial.bookstore.dto.BookPage
 import de.tutorial.bookstore.model.Book
 import de.tutorial.bookstore.repository.BookRepository
+import de.tutorial.bookstore.service.BookCatalogService
+import de.tutorial.bookstore.service.BookLookupCache
+import de.tutorial.bookstore.service.BookSearchIndex
+import de.tutorial.bookstore.service.BookSuggestIndex
+import de.tutorial.bookstore.service.CategoryFacetService
 import spock.lang.Specification
 import spock.lang.Subject
 import org.springframework.http.HttpStatus
 
+import java.time.Duration
+
 class BookControllerSpec extends Specification {
     
     def bookRepository = Mock(BookRepository)
+    def bookCatalogService = Mock(BookCatalogService)
+    def bookSearchIndex = Mock(BookSearchIndex)
+    def bookSuggestIndex = Mock(BookSuggestIndex)
+    def bookLookupCache = new BookLookupCache(bookRepository, 100, Duration.ofMinutes(10))
+    def categoryFacetService = Mock(CategoryFacetService)
     
     @Subject
-    def controller = new BookController(bookRepository)
+    def controller = new BookController(bookRepository, bookCatalogService, bookSearchIndex, bookSuggestIndex,
+            bookLookupCache, categoryFacetService)
     
     def "sollte alle Bücher zurückgeben"() {
         given: "Mehrere Bücher in der Datenbank"
@@ -22,7 +36,7 @@ class BookControllerSpec extends Specification {
         bookRepository.findAll() >> books
         
         when: "Alle Bücher abgerufen werden"
-        def result = controller.getAllBooks()
+        def result = controller.getAllBooks(null).body
         
         then: "Werden alle Bücher zurückgegeben"
         result.size() == 2
@@ -30,6 +44,25 @@ class BookControllerSpec extends Specification {
         result[1].title == "Effective Java"
     }
     
+    def "sollte eine Katalogseite über den Catalog-Service laden"() {
+        given: "Eine Seite mit einem Buch"
+        def book = new Book("978-3-16-148410-0", "Clean Code", "Robert C. Martin", new BigDecimal("39.95"))
+        book.id = 11L
+        def page = new BookPage([book], 11L, true)
+        
+        when: "Die Seite nach ID 10 abgerufen wird"
+        def result = controller.getBooksPage(10L, 1)
+        
+        then: "Wird an den Catalog-Service delegiert, ohne findAll aufzurufen"
+        1 * bookCatalogService.findPage(10L, 1) >> page
+        0 * bookRepository.findAll()
+        
+        and: "Die Seite enthält den Cursor für die nächste Seite"
+        result.books()*.title == ["Clean Code"]
+        result.nextAfterId() == 11L
+        result.hasMore()
+    }
+    
     def "sollte Buch nach ID finden"() {
         given: "Ein existierendes Buch"
         def book = new Book("978-3-16-148410-0", "Clean Code", "Robert C. Martin", new BigDecimal("39.95"))
@@ -37,19 +70,32 @@ class BookControllerSpec extends Specification {
         bookRepository.findById(1L) >> Optional.of(book)
         
         when: "Das Buch abgerufen wird"
-        def response = controller.getBookById(1L)
+        def response = controller.getBookById(1L, null)
         
         then: "Wird das Buch zurückgegeben"
         response.statusCode == HttpStatus.OK
         response.body.title == "Clean Code"
     }
     
+    def "sollte wiederholte Abfragen nach ID aus dem Cache bedienen"() {
+        given: "Ein existierendes Buch"
+        def book = new Book("978-3-16-148410-0", "Clean Code", "Robert C. Martin", new BigDecimal("39.95"))
+        book.id = 1L
+        
+        when: "Das Buch dreimal abgerufen wird"
+        def responses = (1..3).collect { controller.getBookById(1L, null) }
+        
+        then: "Wird die Datenbank nur einmal gefragt"
+        1 * bookRepository.findById(1L) >> Optional.of(book)
+        responses.every { it.statusCode == HttpStatus.OK && it.body.title == "Clean Code" }
+    }
+    
     def "sollte 404 zurückgeben wenn Buch nicht gefunden"() {
         given: "Kein Buch mit dieser ID"
         bookRepository.findById(999L) >> Optional.empty()
         
         when: "Ein nicht existierendes Buch abgerufen wird"
-        def response = controller.getBookById(999L)
+        def response = controller.getBookById(999L, null)
         
         then: "Wird 404 NOT FOUND zurückgegeben"
         response.statusCode == HttpStatus.NOT_FOUND
@@ -64,14 +110,28 @@ class BookControllerSpec extends Specification {
         when: "Nach 'Clean' gesucht wird"
         def results = controller.searchBooks("Clean")
         
-        then: "Repository wurde mit Kleinbuchstaben aufgerufen und gibt Ergebnisse zurück"
-        1 * bookRepository.searchBooks("clean") >> searchResults
+        then: "Suchindex wurde mit Kleinbuchstaben aufgerufen und gibt Ergebnisse zurück"
+        1 * bookSearchIndex.search("clean") >> searchResults
+        0 * bookRepository.searchBooks(_)
         
         and: "Werden passende Bücher gefunden"
         results.size() == 1
         results[0].title == "Clean Code"
     }
     
+    def "sollte Bücher einer Kategorie über die Facetten laden"() {
+        given:
+        def book = new Book("978-3-16-148410-0", "Clean Code", "Robert C. Martin", new BigDecimal("39.95"))
+        
+        when:
+        def results = controller.getBooksByCategory("Software Engineering", null).body
+        
+        then: "Wird kein Tabellen-Scan über das Repository ausgeführt"
+        1 * categoryFacetService.findBooks("Software Engineering") >> [book]
+        0 * bookRepository.findByCategory(_)
+        results*.title == ["Clean Code"]
+    }
+    
     def "sollte neues Buch erstellen"() {
         given: "Ein neues Buch"
         def newBook = new Book("978-1-234567-89-0", "Test Buch", "Test Autor", new BigDecimal("29.99"))
@@ -91,15 +151,75 @@ class BookControllerSpec extends Specification {
     def "sollte Buch aktualisieren"() {
         given: "Ein existierendes Buch"
         def updatedBook = new Book("978-3-16-148410-0", "Clean Code Updated", "Robert C. Martin", new BigDecimal("42.99"))
-        bookRepository.existsById(1L) >> true
+        bookRepository.findVersionById(1L) >> Optional.of(0L)
         bookRepository.save(_) >> { Book b -> b }
         
         when: "Das Buch aktualisiert wird"
-        def response = controller.updateBook(1L, updatedBook)
+        def response = controller.updateBook(1L, updatedBook, null)
         
         then: "Wird das aktualisierte Buch zurückgegeben"
         response.statusCode == HttpStatus.OK
         response.body.id == 1L
         response.body.title == "Clean Code Updated"
     }
-}
\ No newline at end of file
+    
+    def "sollte ein ETag aus ID und Version liefern und bei passendem If-None-Match 304 senden"() {
+        given: "Ein Buch in Version 3"
+        def book = new Book("978-3-16-148410-0", "Clean Code", "Robert C. Martin", new BigDecimal("39.95"))
+        book.id = 1L
+        book.version = 3L
+        
+        when: "Das Buch geladen und danach mit dem ETag erneut angefragt wird"
+        def first = controller.getBookById(1L, null)
+        def second = controller.getBookById(1L, first.headers.getETag())
+        
+        then: "Wird die Datenbank nur einmal gefragt"
+        1 * bookRepository.findById(1L) >> Optional.of(book)
+        first.headers.getETag() == '"1-3"'
+        
+        and: "Die zweite Antwort ist 304 ohne Body"
+        second.statusCode == HttpStatus.NOT_MODIFIED
+        second.body == null
+    }
+    
+    def "sollte Listen einer Kategorie ohne Datenbankzugriff mit 304 beantworten"() {
+        given:
+        categoryFacetService.epoch() >> 1_700_000_000_000L
+        categoryFacetService.categoryVersion("Java") >> 42L
+        def etag = controller.getBooksByCategory("Java", null).headers.getETag()
+        
+        when:
+        def response = controller.getBooksByCategory("Java", "W/" + etag)
+        
+        then:
+        response.statusCode == HttpStatus.NOT_MODIFIED
+        0 * categoryFacetService.findBooks(_)
+    }
+    
+    def "sollte ein PUT mit veraltetem If-Match ablehnen"() {
+        given: "Das Buch ist inzwischen in Version 5"
+        def book = new Book("978-3-16-148410-0", "Clean Code", "Robert C. Martin", new BigDecimal("39.95"))
+        bookRepository.findVersionById(1L) >> Optional.of(5L)
+        
+        when: "Der Client mit dem Stand von Version 4 speichert"
+        def response = controller.updateBook(1L, book, '"1-4"')
+        
+        then: "Wird 412 zurückgegeben und nichts gespeichert"
+        response.statusCode == HttpStatus.PRECONDITION_FAILED
+        0 * bookRepository.save(_)
+    }
+    
+    def "sollte ein PUT mit aktuellem If-Match speichern und das neue ETag liefern"() {
+        given:
+        def book = new Book("978-3-16-148410-0", "Clean Code", "Robert C. Martin", new BigDecimal("39.95"))
+        bookRepository.findVersionById(1L) >> Optional.of(5L)
+        
+        when:
+        def response = controller.updateBook(1L, book, '"1-5"')
+        
+        then: "Wird mit der geprüften Version gespeichert"
+        1 * bookRepository.save({ it.id == 1L && it.version == 5L }) >> { Book b -> b.version = 6L; b }
+        response.statusCode == HttpStatus.OK
+        response.headers.getETag() == '"1-6"'
+    }
+}
@@ -0,0 +1,105 @@
+package de.tutorial.bookstore.datasource
+
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.datasource.DriverManagerDataSource
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.Title
+
+import javax.sql.DataSource
+import java.sql.SQLException
+import java.time.Duration
+
+@Title("Lese-Verbindungen reihum auf Replikate, Rückfall auf den Primary")
+class ReplicaRoutingDataSourceSpec extends Specification {
+
+    static final String LAG_QUERY = "SELECT lag_ms FROM replica_lag"
+
+    def primary = database("primary")
+    def replica1 = database("replica1")
+    def replica2 = database("replica2")
+
+    @AutoCleanup
+    ReplicaRoutingDataSource router
+
+    def "sollte Lese-Verbindungen reihum auf die Replikate verteilen"() {
+        given:
+        router = router([replica1, replica2], null)
+
+        expect:
+        (1..4).collect { connectedTo() } == ["replica1", "replica2", "replica1", "replica2"]
+    }
+
+    def "sollte Replikate mit zu großer Verzögerung überspringen, bis sie aufgeholt haben"() {
+        given:
+        router = router([replica1, replica2], LAG_QUERY)
+
+        when: "replica1 liegt 10 s zurück"
+        setLag(replica1, 10_000)
+        router.checkReplicas()
+
+        then:
+        router.availableReplicas() == 1
+        (1..3).collect { connectedTo() } == ["replica2"] * 3
+
+        when: "Auch replica2 zurückfällt"
+        setLag(replica2, 10_000)
+        router.checkReplicas()
+
+        then: "Liest der Primary"
+        connectedTo() == "primary"
+
+        when: "replica1 wieder aufgeholt hat"
+        setLag(replica1, 100)
+        router.checkReplicas()
+
+        then:
+        connectedTo() == "replica1"
+    }
+
+    def "sollte ein nicht erreichbares Replikat sperren und das nächste nehmen"() {
+        given:
+        def broken = Stub(DataSource) {
+            getConnection() >> { throw new SQLException("Connection refused") }
+        }
+        router = router([broken, replica2], null)
+
+        expect:
+        router.availableReplicas() == 1
+        (1..3).collect { connectedTo() } == ["replica2"] * 3
+    }
+
+    def "sollte ohne erreichbares Replikat vom Primary lesen"() {
+        given:
+        def broken = Stub(DataSource) {
+            getConnection() >> { throw new SQLException("Connection refused") }
+        }
+        router = router([broken], null)
+
+        expect:
+        connectedTo() == "primary"
+    }
+
+    private ReplicaRoutingDataSource router(List<DataSource> replicas, String lagQuery) {
+        // Prüfintervall lang genug, dass nur die expliziten checkReplicas()-Aufrufe zählen
+        new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(5), lagQuery, Duration.ofHours(1))
+    }
+
+    private String connectedTo() {
+        new JdbcTemplate(router).queryForObject("SELECT name FROM whoami", String)
+    }
+
+    private static void setLag(DataSource dataSource, long millis) {
+        new JdbcTemplate(dataSource).update("UPDATE replica_lag SET lag_ms = ?", millis)
+    }
+
+    private static DataSource database(String name) {
+        def dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-${name}-${UUID.randomUUID()};DB_CLOSE_DELAY=-1", "sa", "")
+        def jdbc = new JdbcTemplate(dataSource)
+        jdbc.execute("CREATE TABLE whoami (name VARCHAR(20))")
+        jdbc.update("INSERT INTO whoami VALUES (?)", name)
+        jdbc.execute("CREATE TABLE replica_lag (lag_ms BIGINT)")
+        jdbc.update("INSERT INTO replica_lag VALUES (0)")
+        dataSource
+    }
+}
@@ -0,0 +1,96 @@
+package de.tutorial.bookstore.metrics
+
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.repository.BookRepository
+import de.tutorial.bookstore.service.BookLookupCache
+import de.tutorial.bookstore.service.PriceCalculationService
+import io.micrometer.core.aop.TimedAspect
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.web.servlet.HandlerMapping
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Title
+
+import java.time.Duration
+
+@Title("Metriken gegen eine In-Memory-Registry")
+class RequestMetricsInterceptorSpec extends Specification {
+
+    def registry = new SimpleMeterRegistry()
+
+    @Subject
+    def interceptor = new RequestMetricsInterceptor(registry)
+
+    def request = new MockHttpServletRequest("GET", "/api/books/1")
+    def response = new MockHttpServletResponse()
+
+    def setup() {
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books/{id}")
+    }
+
+    def "sollte SQL-Statements und Cache-Zugriffe pro Request nach URI-Pattern aufzeichnen"() {
+        given: "Ein Cache vor dem Repository"
+        def bookRepository = Mock(BookRepository)
+        def cache = new BookLookupCache(bookRepository, 100, Duration.ofMinutes(5))
+        bookRepository.findById(1L) >> {
+            new SqlStatementCounter().inspect("select ... from books where id=?")
+            Optional.of(new Book("978-3-16-148410-0", "Clean Code", "Robert C. Martin", new BigDecimal("39.95")))
+        }
+
+        when: "Ein Request das Buch zweimal lädt"
+        interceptor.preHandle(request, response, null)
+        cache.findById(1L)
+        cache.findById(1L)
+        interceptor.afterCompletion(request, response, null, null)
+
+        then: "Ein Statement, zwei Cache-Zugriffe, ein Miss"
+        summary(RequestMetricsInterceptor.DB_STATEMENTS).totalAmount() == 1
+        summary(RequestMetricsInterceptor.CACHE_LOOKUPS).totalAmount() == 2
+        summary(RequestMetricsInterceptor.CACHE_MISSES).totalAmount() == 1
+        summary(RequestMetricsInterceptor.DB_STATEMENTS).count() == 1
+    }
+
+    def "sollte außerhalb eines Requests nichts zählen"() {
+        when:
+        new SqlStatementCounter().inspect("select 1")
+        interceptor.afterCompletion(request, response, null, null)
+
+        then:
+        registry.meters.isEmpty()
+    }
+
+    def "sollte die Cache-Statistik an die Registry binden"() {
+        given:
+        def cache = new BookLookupCache(Mock(BookRepository), 100, Duration.ofMinutes(5))
+
+        when:
+        cache.bindTo(registry)
+
+        then:
+        registry.find("cache.gets").tag("cache", "books.by-id").meters()
+        registry.find("cache.gets").tag("cache", "books.by-isbn").meters()
+    }
+
+    def "sollte Aufrufe der Preisberechnung über @Timed messen"() {
+        given: "Der Service hinter dem Timed-Aspekt"
+        def factory = new AspectJProxyFactory(new PriceCalculationService())
+        factory.proxyTargetClass = true
+        factory.addAspect(new TimedAspect(registry))
+        PriceCalculationService service = factory.getProxy()
+
+        when:
+        3.times { service.calculateVAT(new BigDecimal("39.95")) }
+        service.vatCents(3995L)
+
+        then: "Nur die BigDecimal-API wird gemessen"
+        registry.get("bookstore.pricing").tag("method", "calculateVAT").timer().count() == 3
+        registry.find("bookstore.pricing").tag("method", "vatCents").timer() == null
+    }
+
+    private summary(String name) {
+        registry.get(name).tag("uri", "/api/books/{id}").tag("method", "GET").summary()
+    }
+}
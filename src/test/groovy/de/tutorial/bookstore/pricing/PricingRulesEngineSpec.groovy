@@ -0,0 +1,136 @@
+package de.tutorial.bookstore.pricing
+
+import de.tutorial.bookstore.service.PriceCalculationService
+import org.springframework.boot.env.YamlPropertySourceLoader
+import org.springframework.core.env.MapPropertySource
+import org.springframework.core.env.StandardEnvironment
+import org.springframework.core.io.ClassPathResource
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Title
+import spock.lang.Unroll
+
+import java.nio.file.Path
+
+@Title("Preisregeln: Staffeln aus der Konfiguration, zur Laufzeit austauschbar")
+class PricingRulesEngineSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    def "sollte dieselben Staffeln aus der application.yml laden wie die Standardregeln"() {
+        when:
+        def engine = new PricingRulesEngine(environment())
+
+        then:
+        engine.current().rules() == PricingRules.defaults()
+    }
+
+    @Unroll
+    def "sollte für #quantity Bücher #percent% Rabatt aus der Tabelle lesen"() {
+        given:
+        def rules = CompiledPricingRules.compile(PricingRules.defaults())
+
+        expect:
+        rules.discountPercent(quantity) == percent
+        rules.discountRate(quantity) == percent / 100
+
+        where:
+        quantity | percent
+        -1       | 0
+        0        | 0
+        2        | 0
+        3        | 5
+        4        | 5
+        5        | 10
+        9        | 10
+        10       | 15
+        1000     | 15
+    }
+
+    def "sollte Regeln aus der Datei neu laden, ohne laufende Berechnungen zu stören"() {
+        given:
+        def file = rulesFile("""\
+            bookstore:
+              pricing:
+                discount-tiers:
+                  - min-quantity: 2
+                    percent: 20
+                shipping-tiers:
+                  - min-order-value: 0
+                    cost: 3.50
+            """)
+        def engine = new PricingRulesEngine(environment((PricingRulesEngine.RULES_FILE_PROPERTY): file.toString()))
+        def service = new PriceCalculationService(engine)
+        def snapshot = engine.current()
+
+        expect:
+        service.discountPercent(2) == 20
+        service.calculateShippingCost(new BigDecimal("100.00")) == new BigDecimal("3.50")
+
+        when: "Die Datei geändert und neu geladen wird"
+        file.text = file.text.replace("percent: 20", "percent: 25")
+        engine.reload()
+
+        then: "Gilt die neue Staffel, der alte Snapshot bleibt unverändert"
+        service.discountPercent(2) == 25
+        snapshot.discountPercent(2) == 20
+    }
+
+    def "sollte ungültige Regeln ablehnen und die bisherigen behalten"() {
+        given:
+        def file = rulesFile("""\
+            bookstore:
+              pricing:
+                discount-tiers:
+                  - min-quantity: 3
+                    percent: 5
+                shipping-tiers:
+                  - min-order-value: 0
+                    cost: 4.95
+            """)
+        def engine = new PricingRulesEngine(environment((PricingRulesEngine.RULES_FILE_PROPERTY): file.toString()))
+
+        when: "Die Staffeln nicht mehr aufsteigend sind"
+        file.text = file.text.replace("percent: 5", "percent: 5\n      - min-quantity: 2\n        percent: 10")
+        engine.reload()
+
+        then:
+        thrown(RuntimeException)
+        engine.current().discountPercent(3) == 5
+        engine.current().discountPercent(2) == 0
+    }
+
+    def "sollte Cent- und BigDecimal-Variante auch mit geänderten Regeln gleich rechnen"() {
+        given:
+        def engine = new PricingRulesEngine(new PricingRules(
+                [new PricingRules.DiscountTier(2, 3), new PricingRules.DiscountTier(7, 12)],
+                [new PricingRules.ShippingTier(0.00, 5.90), new PricingRules.ShippingTier(30.00, 0.00)]))
+        def service = new PriceCalculationService(engine)
+
+        expect:
+        (1..12).every { quantity ->
+            service.quantityDiscountCents(1999, quantity) ==
+                    PriceCalculationService.toCents(service.calculateQuantityDiscount(new BigDecimal("19.99"), quantity))
+        }
+        [0L, 2999L, 3000L, 10000L].every { cents ->
+            service.shippingCostCents(cents) ==
+                    PriceCalculationService.toCents(service.calculateShippingCost(PriceCalculationService.fromCents(cents)))
+        }
+    }
+
+    private Path rulesFile(String yaml) {
+        def file = dir.resolve("pricing-rules.yml")
+        file.text = yaml.stripIndent()
+        file
+    }
+
+    private static StandardEnvironment environment(Map<String, Object> overrides = [:]) {
+        def environment = new StandardEnvironment()
+        environment.propertySources.addFirst(new MapPropertySource("overrides", overrides))
+        new YamlPropertySourceLoader().load("application.yml", new ClassPathResource("application.yml")).each {
+            environment.propertySources.addLast(it)
+        }
+        environment
+    }
+}
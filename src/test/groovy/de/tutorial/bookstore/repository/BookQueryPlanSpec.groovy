@@ -0,0 +1,119 @@
+package de.tutorial.bookstore.repository
+
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.data.domain.Limit
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.core.PreparedStatementCallback
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Specification
+import spock.lang.Tag
+import spock.lang.Title
+
+import java.sql.PreparedStatement
+import java.sql.Types
+
+@Tag("integration")
+@Title("Ausführungspläne aller BookRepository-Abfragen")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = [
+    "spring.datasource.url=jdbc:h2:mem:queryplans;DB_CLOSE_DELAY=-1",
+    // Nur die Pläne zählen: Treffer aus Second-Level- oder Query-Cache würden gar kein SQL erzeugen
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=de.tutorial.bookstore.repository.RecordingStatementInspector"
+])
+class BookQueryPlanSpec extends Specification {
+
+    /**
+     * Abfragen, die absichtlich den ganzen Katalog lesen - mit Begründung
+     */
+    static final Map<String, String> FULL_READS = [
+        searchBooks            : "LIKE '%...%' auf LOWER(...) kann keinen Index nutzen; die API sucht über BookSearchIndex",
+        findAllCategories      : "Alle Kategorien; die API liest sie aus CategoryFacetService",
+        streamAllByOrderByIdAsc: "Liest bewusst den gesamten Katalog"
+    ]
+
+    @Autowired
+    BookRepository bookRepository
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    @Autowired
+    TransactionTemplate transactionTemplate
+
+    def "sollte für #method den Index auf #column nutzen"() {
+        when:
+        def plans = RecordingStatementInspector.record { query(bookRepository) }.collect { explain(it) }
+
+        then:
+        !plans.isEmpty()
+        plans.every { plan -> !plan.contains(".tableScan") }
+        plans.every { plan -> usedIndex(plan) in indexesOn(column) }
+
+        where:
+        method                             | column           | query
+        "findById"                         | "ID"             | { BookRepository r -> r.findById(1L) }
+        "findAllById"                      | "ID"             | { BookRepository r -> r.findAllById([1L, 2L]) }
+        "findVersionById"                  | "ID"             | { BookRepository r -> r.findVersionById(1L) }
+        "findByIdGreaterThanOrderByIdAsc"  | "ID"             | { BookRepository r -> r.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10)) }
+        "reserveStock"                     | "ID"             | { BookRepository r -> r.reserveStock(1L, 1) }
+        "releaseStock"                     | "ID"             | { BookRepository r -> r.releaseStock(1L, 1) }
+        "findByIsbn"                       | "ISBN"           | { BookRepository r -> r.findByIsbn("978-0-321-35668-0") }
+        "findByIsbnIn"                     | "ISBN"           | { BookRepository r -> r.findByIsbnIn(["978-0-321-35668-0", "978-3-16-148410-0"]) }
+        "findExistingIsbns"                | "ISBN"           | { BookRepository r -> r.findExistingIsbns(["978-0-321-35668-0"]) }
+        "findByCategory"                   | "CATEGORY"       | { BookRepository r -> r.findByCategory("Java") }
+        "findByAuthor"                     | "AUTHOR"         | { BookRepository r -> r.findByAuthor("Joshua Bloch") }
+        "findByStockQuantityGreaterThan"   | "STOCK_QUANTITY" | { BookRepository r -> r.findByStockQuantityGreaterThan(5) }
+    }
+
+    def "sollte jede Abfrage des Repositories prüfen oder als bewusst vollständig markieren"() {
+        given: "Die Methoden aus dem Feature oben"
+        def checked = [
+            "findById", "findAllById", "findVersionById", "findByIdGreaterThanOrderByIdAsc", "reserveStock", "releaseStock",
+            "findByIsbn", "findByIsbnIn", "findExistingIsbns", "findByCategory", "findByAuthor", "findByStockQuantityGreaterThan"
+        ] as Set
+
+        expect: "Neue Abfragen brauchen einen Index oder einen Eintrag in FULL_READS"
+        (BookRepository.declaredMethods.findAll { !it.synthetic }*.name as Set) - FULL_READS.keySet() - checked == [] as Set
+    }
+
+    def "sollte die bewusst vollständigen Abfragen weiterhin ausführen können"() {
+        expect:
+        !RecordingStatementInspector.record { bookRepository.searchBooks("java") }.isEmpty()
+        !RecordingStatementInspector.record { bookRepository.findAllCategories() }.isEmpty()
+        transactionTemplate.execute { bookRepository.streamAllByOrderByIdAsc().withCloseable { it.count() } } > 0
+    }
+
+    /**
+     * Plan von H2 für das SQL, wie Hibernate es erzeugt hat. Die Parameter sind für den Plan egal,
+     * H2 verlangt aber gesetzte Werte.
+     */
+    private String explain(String sql) {
+        jdbcTemplate.execute("EXPLAIN " + sql, { PreparedStatement statement ->
+            for (int i = 1; i <= statement.parameterMetaData.parameterCount; i++) {
+                statement.setNull(i, Types.NULL)
+            }
+            statement.executeQuery().withCloseable { rs ->
+                rs.next()
+                rs.getString(1)
+            }
+        } as PreparedStatementCallback<String>)
+    }
+
+    /**
+     * H2 nennt den gewählten Zugriff als Kommentar hinter der Tabelle, z.B. {@code PUBLIC.IDX_BOOKS_AUTHOR: AUTHOR = ?1}
+     * oder {@code PUBLIC.BOOKS.tableScan}
+     */
+    private static String usedIndex(String plan) {
+        def matcher = plan =~ /\/\* PUBLIC\.(\w+)/
+        assert matcher.find(): plan
+        matcher.group(1)
+    }
+
+    private Set<String> indexesOn(String column) {
+        jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                "WHERE TABLE_NAME = 'BOOKS' AND COLUMN_NAME = ? AND ORDINAL_POSITION = 1", String, column) as Set
+    }
+}
@@ -0,0 +1,111 @@
+package de.tutorial.bookstore.repository
+
+import de.tutorial.bookstore.dto.StockChange
+import de.tutorial.bookstore.metrics.RequestCallStats
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.service.StockService
+import jakarta.persistence.EntityManagerFactory
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import spock.lang.Specification
+import spock.lang.Tag
+import spock.lang.Title
+
+import javax.cache.CacheManager
+import javax.cache.Caching
+
+@Tag("integration")
+@Title("Second-Level- und Query-Cache für Bücher")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = [
+    "spring.datasource.url=jdbc:h2:mem:l2cache;DB_CLOSE_DELAY=-1"
+])
+class BookSecondLevelCacheSpec extends Specification {
+
+    @Autowired
+    BookRepository bookRepository
+
+    @Autowired
+    StockService stockService
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory
+
+    @Autowired
+    CacheManager secondLevelCacheManager
+
+    def "sollte ein Buch nach dem ersten Laden ohne SQL liefern"() {
+        expect: "Der erste Zugriff geht an die Datenbank, der zweite nicht"
+        statements { bookRepository.findById(1L) } == 1
+        statements { bookRepository.findById(1L) } == 0
+        entityManagerFactory.cache.contains(Book, 1L)
+    }
+
+    def "sollte Kategorie- und Autor-Abfragen aus dem Query-Cache beantworten"() {
+        expect:
+        statements { bookRepository.findByCategory("Java") } == 1
+        statements { bookRepository.findByCategory("Java") } == 0
+        statements { bookRepository.findByAuthor("Joshua Bloch") } == 1
+        statements { bookRepository.findByAuthor("Joshua Bloch") } == 0
+
+        and: "Die Treffer aus dem Cache sind dieselben Bücher"
+        bookRepository.findByAuthor("Joshua Bloch")*.isbn == ["978-0-321-35668-0"]
+    }
+
+    def "sollte gecachte Abfragen nach dem Speichern eines Buchs neu ausführen"() {
+        given: "Die Kategorie ist gecacht"
+        def before = bookRepository.findByCategory("Java").size()
+
+        when: "Ein weiteres Java-Buch gespeichert wird"
+        def book = new Book("978-3-86680-192-9", "Java im Alltag", "Erika Mustermann", new BigDecimal("29.90"))
+        book.category = "Java"
+        book = bookRepository.save(book)
+
+        then: "Geht die nächste Abfrage wieder an die Datenbank und enthält das neue Buch"
+        statements { bookRepository.findByCategory("Java") } == 1
+        bookRepository.findByCategory("Java").size() == before + 1
+
+        cleanup:
+        bookRepository.deleteById(book.id)
+    }
+
+    def "sollte ein Buch nach einer Bestandsbuchung frisch laden"() {
+        given: "Das Buch liegt im Cache"
+        def stock = bookRepository.findById(2L).get().stockQuantity
+
+        when: "Der Bestand per JPQL-Update reserviert wird"
+        stockService.reserve([new StockChange(2L, 1)])
+
+        then: "Ist der Eintrag ungültig und der neue Bestand sichtbar"
+        statements { bookRepository.findById(2L) } == 1
+        bookRepository.findById(2L).get().stockQuantity == stock - 1
+
+        cleanup:
+        stockService.release([new StockChange(2L, 1)])
+    }
+
+    def "sollte die Regionen nicht mit anderen Application Contexten teilen"() {
+        given: "Der CacheManager, den sich alle Contexte ohne eigenen teilen würden"
+        def shared = Caching.getCachingProvider(secondLevelCacheManager.cachingProvider.class.name).cacheManager
+
+        when:
+        bookRepository.findById(1L)
+
+        then: "Das Buch liegt nur in den Regionen dieses Contexts"
+        !shared.is(secondLevelCacheManager)
+        entityManagerFactory.cache.contains(Book, 1L)
+        !shared.getCache(Book.name).iterator().hasNext()
+    }
+
+    /**
+     * SQL-Statements, die der Block absetzt - gezählt vom SqlStatementCounter wie pro Request
+     */
+    private static int statements(Closure work) {
+        RequestCallStats.begin()
+        try {
+            work.call()
+            return RequestCallStats.end().dbStatements()
+        } finally {
+            RequestCallStats.end()
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package de.tutorial.bookstore.repository
+
+import de.tutorial.bookstore.metrics.SqlStatementCounter
+
+/**
+ * Merkt sich zusätzlich das SQL, das Hibernate im aktuellen Thread innerhalb von {@link #record} vorbereitet
+ */
+class RecordingStatementInspector extends SqlStatementCounter {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>()
+
+    static List<String> record(Closure action) {
+        def statements = []
+        RECORDED.set(statements)
+        try {
+            action()
+        } finally {
+            RECORDED.remove()
+        }
+        statements
+    }
+
+    @Override
+    String inspect(String sql) {
+        RECORDED.get()?.add(sql)
+        super.inspect(sql)
+    }
+}
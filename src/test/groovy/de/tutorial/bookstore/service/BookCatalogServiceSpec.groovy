@@ -0,0 +1,133 @@
+package de.tutorial.bookstore.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.repository.BookRepository
+import jakarta.persistence.EntityManager
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Title
+
+import java.util.stream.Stream
+
+@Title("Katalog-Pagination und Streaming")
+class BookCatalogServiceSpec extends Specification {
+
+    def bookRepository = Mock(BookRepository)
+    def bookSearchIndex = Mock(BookSearchIndex)
+    def entityManager = Mock(EntityManager)
+    def objectMapper = new ObjectMapper()
+
+    @Subject
+    def service = new BookCatalogService(bookRepository, bookSearchIndex, objectMapper, entityManager)
+
+    def "sollte die Seitengröße auf das Maximum begrenzen"() {
+        when: "Eine viel zu große Seite angefordert wird"
+        def page = service.findPage(null, 100_000)
+
+        then: "Wird höchstens MAX_PAGE_SIZE + 1 geladen, beginnend beim Anfang"
+        1 * bookRepository.findByIdGreaterThanOrderByIdAsc(0L, { it.max() == BookCatalogService.MAX_PAGE_SIZE + 1 }) >> []
+
+        and: "Gibt es keine weitere Seite"
+        page.books().isEmpty()
+        page.nextAfterId() == null
+        !page.hasMore()
+    }
+
+    def "sollte ohne Limit die Standard-Seitengröße verwenden"() {
+        when:
+        service.findPage(5L, null)
+
+        then:
+        1 * bookRepository.findByIdGreaterThanOrderByIdAsc(5L, { it.max() == BookCatalogService.DEFAULT_PAGE_SIZE + 1 }) >> []
+    }
+
+    def "sollte den Cursor für die nächste Seite setzen, wenn weitere Bücher existieren"() {
+        given: "Drei Bücher nach ID 10"
+        def books = (11L..13L).collect { createBook(it) }
+        bookRepository.findByIdGreaterThanOrderByIdAsc(10L, _) >> books
+
+        when: "Eine Seite mit zwei Büchern abgerufen wird"
+        def page = service.findPage(10L, 2)
+
+        then: "Enthält die Seite genau zwei Bücher und zeigt auf das letzte"
+        page.books()*.id == [11L, 12L]
+        page.nextAfterId() == 12L
+        page.hasMore()
+    }
+
+    def "sollte den Katalog als JSON-Array streamen und Entities abkoppeln"() {
+        given: "Zwei Bücher im Cursor"
+        def books = [createBook(1L), createBook(2L)]
+        bookRepository.streamAllByOrderByIdAsc() >> books.stream()
+        def out = new ByteArrayOutputStream()
+
+        when: "Der Katalog geschrieben wird"
+        service.writeCatalog(out)
+
+        then: "Wird jedes Buch nach dem Schreiben aus dem Persistence Context entfernt"
+        2 * entityManager.detach(_ as Book)
+
+        and: "Ist das Ergebnis ein gültiges JSON-Array"
+        def json = objectMapper.readTree(out.toByteArray())
+        json.isArray()
+        json.size() == 2
+        json[1].get("id").asLong() == 2L
+    }
+
+    def "sollte Suchtreffer zeilenweise als NDJSON schreiben und das Limit beachten"() {
+        given: "Drei Treffer im Index"
+        bookSearchIndex.matchingIds("java") >> Stream.of(1L, 2L, 3L)
+        def out = new ByteArrayOutputStream()
+
+        when: "Höchstens zwei angefordert werden"
+        service.writeSearchResults("java", 2, out)
+
+        then: "Werden nur die ersten beiden geladen"
+        1 * bookRepository.findAllById([1L, 2L]) >> [createBook(2L), createBook(1L)]
+        0 * bookRepository.findAllById(_)
+
+        and: "Steht jedes Buch als JSON in einer eigenen Zeile, sortiert nach ID"
+        def lines = out.toString("UTF-8").readLines()
+        lines.size() == 2
+        lines.collect { objectMapper.readTree(it).get("id").asLong() } == [1L, 2L]
+    }
+
+    def "sollte die ersten Treffer in einem kleinen Block vorab liefern"() {
+        given:
+        bookSearchIndex.matchingIds("buch") >> (1L..25L).stream()
+
+        when:
+        service.writeSearchResults("buch", null, new ByteArrayOutputStream())
+
+        then: "Erst ein kleiner Block, dann der Rest"
+        1 * bookRepository.findAllById({ it.size() == BookCatalogService.FIRST_SEARCH_BATCH }) >> []
+
+        then:
+        1 * bookRepository.findAllById({ it.size() == 25 - BookCatalogService.FIRST_SEARCH_BATCH }) >> []
+    }
+
+    def "sollte die Suche beenden, wenn der Client aufgelegt hat"() {
+        given: "Ein Client, dessen Verbindung beim ersten Flush schon weg ist"
+        boolean closed = false
+        bookSearchIndex.matchingIds("buch") >> (1L..25L).stream().onClose { closed = true }
+        def out = new OutputStream() {
+            void write(int b) {}
+            void flush() { throw new IOException("Broken pipe") }
+        }
+
+        when:
+        service.writeSearchResults("buch", null, out)
+
+        then: "Wird nur der erste Block geladen und der Treffer-Stream geschlossen"
+        thrown(IOException)
+        1 * bookRepository.findAllById(_) >> [createBook(1L)]
+        closed
+    }
+
+    private static Book createBook(Long id) {
+        def book = new Book("978-3-16-148410-${id % 10}", "Buch ${id}", "Autor", new BigDecimal("10.00"))
+        book.id = id
+        return book
+    }
+}
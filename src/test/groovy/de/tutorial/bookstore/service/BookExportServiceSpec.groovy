@@ -0,0 +1,109 @@
+package de.tutorial.bookstore.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import de.tutorial.bookstore.controller.BookExportController
+import org.springframework.core.io.ClassPathResource
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpStatus
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.datasource.DriverManagerDataSource
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator
+import org.springframework.web.server.ResponseStatusException
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Title
+
+import java.nio.charset.StandardCharsets
+import java.util.zip.GZIPInputStream
+
+@Title("Katalog-Export als NDJSON und CSV")
+class BookExportServiceSpec extends Specification {
+
+    def objectMapper = new ObjectMapper()
+    def jdbc = new JdbcTemplate(database())
+
+    @Subject
+    def exportService = new BookExportService(jdbc, objectMapper)
+
+    def setup() {
+        jdbc.update("INSERT INTO books (id, isbn, title, author, price, stock_quantity, category, description) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                50L, "978-0-000-00050-0", 'Kommas, "Anführungszeichen" & Umlaute: äöü', "Autor", new BigDecimal("9.90"), null, null, null)
+    }
+
+    def "sollte jedes Buch als eine JSON-Zeile nach ID sortiert schreiben"() {
+        given:
+        def out = new ByteArrayOutputStream()
+
+        when:
+        def rows = exportService.export(BookExportService.Format.NDJSON, out)
+
+        then:
+        def lines = out.toString(StandardCharsets.UTF_8).split("\n") as List
+        rows == lines.size()
+        rows == jdbc.queryForObject("SELECT COUNT(*) FROM books", Long)
+
+        and:
+        def books = lines.collect { objectMapper.readTree(it) }
+        books*.get("id")*.asLong() == books*.get("id")*.asLong().sort(false)
+        books.every { it.fieldNames().toList() == BookExportService.COLUMNS as List }
+
+        and: "Sonderzeichen und NULL-Werte bleiben erhalten"
+        def special = books.find { it.get("id").asLong() == 50L }
+        special.get("title").asText() == 'Kommas, "Anführungszeichen" & Umlaute: äöü'
+        special.get("price").decimalValue() == new BigDecimal("9.90")
+        special.get("stockQuantity").isNull()
+        special.get("category").isNull()
+    }
+
+    def "sollte eine CSV mit Kopfzeile schreiben, die der Import wieder lesen kann"() {
+        given:
+        def out = new ByteArrayOutputStream()
+
+        when:
+        def rows = exportService.export(BookExportService.Format.CSV, out)
+
+        then:
+        def lines = out.toString(StandardCharsets.UTF_8).split("\r\n").collect { CsvFormat.parseLine(it) }
+        lines[0] == BookExportService.COLUMNS as List
+        lines.size() == rows + 1
+
+        and:
+        def special = lines.find { it[0] == "50" }
+        special == ["50", "978-0-000-00050-0", 'Kommas, "Anführungszeichen" & Umlaute: äöü', "Autor", "9.90", "", "", "", "0"]
+    }
+
+    def "sollte den Export über den Controller auf Wunsch mit gzip komprimieren"() {
+        given:
+        def controller = new BookExportController(exportService)
+        def plain = new ByteArrayOutputStream()
+        exportService.export(BookExportService.Format.CSV, plain)
+
+        when:
+        def response = controller.export("csv", "gzip, deflate, br")
+        def compressed = new ByteArrayOutputStream()
+        response.body.writeTo(compressed)
+
+        then:
+        response.headers.getFirst(HttpHeaders.CONTENT_ENCODING) == "gzip"
+        response.headers.getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("books.csv")
+        new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())).bytes == plain.toByteArray()
+
+        and: "Ohne Accept-Encoding bleibt die Antwort unkomprimiert"
+        controller.export("ndjson", null).headers.getFirst(HttpHeaders.CONTENT_ENCODING) == null
+    }
+
+    def "sollte unbekannte Formate mit 400 ablehnen"() {
+        when:
+        new BookExportController(exportService).export("xml", null)
+
+        then:
+        def e = thrown(ResponseStatusException)
+        e.statusCode == HttpStatus.BAD_REQUEST
+    }
+
+    private static DriverManagerDataSource database() {
+        def dataSource = new DriverManagerDataSource("jdbc:h2:mem:export-${UUID.randomUUID()};DB_CLOSE_DELAY=-1", "sa", "")
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql")).execute(dataSource)
+        dataSource
+    }
+}
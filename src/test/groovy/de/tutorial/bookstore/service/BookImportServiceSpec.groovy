@@ -0,0 +1,140 @@
+package de.tutorial.bookstore.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.repository.BookRepository
+import jakarta.persistence.EntityManager
+import jakarta.persistence.PersistenceException
+import jakarta.validation.Validation
+import org.springframework.transaction.PlatformTransactionManager
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Title
+
+import java.nio.charset.StandardCharsets
+
+@Title("Bulk-Import von Büchern")
+class BookImportServiceSpec extends Specification {
+
+    def bookRepository = Mock(BookRepository)
+    def entityManager = Mock(EntityManager)
+    def transactionManager = Mock(PlatformTransactionManager)
+    def validator = Validation.buildDefaultValidatorFactory().getValidator()
+
+    @Subject
+    def service = new BookImportService(bookRepository, entityManager, transactionManager, validator, new ObjectMapper())
+
+    def "sollte gültige NDJSON-Zeilen importieren und fehlerhafte melden"() {
+        given: "Drei gültige, eine ungültige und eine kaputte Zeile"
+        def body = [
+            '{"isbn":"978-3-16-148410-0","title":"Clean Code","author":"Robert C. Martin","price":39.95}',
+            '{"isbn":"978-0-321-35668-0","title":"Effective Java","author":"Joshua Bloch","price":45.99}',
+            '',
+            '{"isbn":"ungültig","title":"Kaputt","author":"Niemand","price":10.00}',
+            '{"isbn":"978-0-13-468599-1","title":"Refactoring"',
+            '{"isbn":"978-1-449-37320-3","title":"Java 8 in Action","author":"Raoul-Gabriel Urma","price":42.50}'
+        ].join("\n")
+
+        when:
+        def report = service.importNdjson(stream(body))
+
+        then: "Nur die gültigen Bücher werden gespeichert, in einem Batch"
+        1 * bookRepository.findExistingIsbns(_) >> []
+        3 * entityManager.persist(_ as Book)
+        1 * entityManager.flush()
+
+        and: "Der Report enthält die Fehler mit Zeilennummer"
+        report.received() == 5
+        report.imported() == 3
+        report.failed() == 2
+        report.errors()*.line().sort() == [4L, 5L]
+        report.errors().find { it.line() == 4L }.message().startsWith("isbn: ")
+        !report.errorsTruncated()
+    }
+
+    def "sollte CSV mit Kopfzeile und Anführungszeichen lesen"() {
+        given:
+        def body = '''isbn,title,author,price,stock_quantity,category
+978-3-16-148410-0,"Clean Code: A Handbook, Agile","Robert C. Martin",39.95,15,Programmierung
+'''
+        Book imported = null
+
+        when:
+        def report = service.importCsv(stream(body))
+
+        then:
+        1 * bookRepository.findExistingIsbns(["978-3-16-148410-0"]) >> []
+        1 * entityManager.persist(_ as Book) >> { Book b -> imported = b }
+
+        and: "Das Komma im Titel bleibt erhalten"
+        report.imported() == 1
+        imported.title == "Clean Code: A Handbook, Agile"
+        imported.price == new BigDecimal("39.95")
+        imported.stockQuantity == 15
+        imported.category == "Programmierung"
+    }
+
+    def "sollte bereits vorhandene und doppelte ISBNs ablehnen"() {
+        given:
+        def body = [
+            '{"isbn":"978-3-16-148410-0","title":"Clean Code","author":"Robert C. Martin","price":39.95}',
+            '{"isbn":"978-0-321-35668-0","title":"Effective Java","author":"Joshua Bloch","price":45.99}',
+            '{"isbn":"978-0-321-35668-0","title":"Effective Java","author":"Joshua Bloch","price":45.99}'
+        ].join("\n")
+
+        when:
+        def report = service.importNdjson(stream(body))
+
+        then:
+        1 * bookRepository.findExistingIsbns(_) >> ["978-3-16-148410-0"]
+        1 * entityManager.persist(_ as Book)
+
+        and:
+        report.imported() == 1
+        report.errors()*.message() as Set == ["ISBN existiert bereits", "ISBN kommt im Import mehrfach vor"] as Set
+    }
+
+    def "sollte bei einem fehlgeschlagenen Batch die Datensätze einzeln wiederholen"() {
+        given:
+        def body = [
+            '{"isbn":"978-3-16-148410-0","title":"Clean Code","author":"Robert C. Martin","price":39.95}',
+            '{"isbn":"978-0-321-35668-0","title":"Effective Java","author":"Joshua Bloch","price":45.99}'
+        ].join("\n")
+        bookRepository.findExistingIsbns(_) >> []
+        Book current = null
+        entityManager.persist(_ as Book) >> { Book b -> current = b }
+
+        when:
+        def report = service.importNdjson(stream(body))
+
+        then: "Der Batch scheitert, danach scheitert nur Effective Java"
+        3 * entityManager.flush() >> { throw new PersistenceException("Batch") } >> {} >> {
+            throw new PersistenceException("Unique index verletzt: " + current.isbn)
+        }
+
+        and:
+        report.imported() == 1
+        report.failed() == 1
+        report.errors()[0].isbn() == "978-0-321-35668-0"
+        report.errors()[0].message() == "Unique index verletzt: 978-0-321-35668-0"
+    }
+
+    def "sollte die Dubletten-Prüfung einmal pro Chunk ausführen"() {
+        given: "Einen Datensatz mehr als ein Chunk fasst"
+        def body = (1..BookImportService.CHUNK_SIZE + 1).collect { n ->
+            """{"isbn":"978-3-${n}-1-0","title":"Buch ${n}","author":"Autor","price":9.99}"""
+        }.join("\n")
+
+        when:
+        def report = service.importNdjson(stream(body))
+
+        then: "Zwei Abfragen, zwei Flushes"
+        2 * bookRepository.findExistingIsbns(_) >> []
+        2 * entityManager.flush()
+        report.imported() == BookImportService.CHUNK_SIZE + 1
+    }
+
+    private static InputStream stream(String body) {
+        new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))
+    }
+}
@@ -0,0 +1,124 @@
+package de.tutorial.bookstore.service
+
+import com.github.benmanes.caffeine.cache.Ticker
+import de.tutorial.bookstore.event.BookChangedEvent
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.repository.BookRepository
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Title
+
+import java.time.Duration
+
+@Title("Read-Through Cache für Buch-Zugriffe")
+class BookLookupCacheSpec extends Specification {
+
+    def bookRepository = Mock(BookRepository)
+    long nanos = 0L
+    Ticker ticker = { nanos } as Ticker
+
+    @Subject
+    def cache = new BookLookupCache(bookRepository, 2, Duration.ofMinutes(5), ticker)
+
+    def "sollte ein Buch nur beim ersten Zugriff laden"() {
+        given:
+        def book = createBook(1L, "978-3-16-148410-0")
+
+        when: "Das Buch zweimal abgefragt wird"
+        def first = cache.findById(1L)
+        def second = cache.findById(1L)
+
+        then: "Wird das Repository nur einmal gefragt"
+        1 * bookRepository.findById(1L) >> Optional.of(book)
+        first.get().is(second.get())
+
+        and: "Zählt die Statistik einen Miss und einen Hit"
+        cache.stats().idMisses() == 1
+        cache.stats().idHits() == 1
+    }
+
+    def "sollte nicht gefundene Bücher nicht cachen"() {
+        when:
+        cache.findById(99L)
+        cache.findById(99L)
+
+        then:
+        2 * bookRepository.findById(99L) >> Optional.empty()
+    }
+
+    def "sollte nach Ablauf der TTL neu laden"() {
+        given:
+        def book = createBook(1L, "978-3-16-148410-0")
+
+        when: "Das Buch vor und nach Ablauf der TTL abgefragt wird"
+        cache.findById(1L)
+        nanos += Duration.ofMinutes(6).toNanos()
+        cache.findById(1L)
+
+        then:
+        2 * bookRepository.findById(1L) >> Optional.of(book)
+    }
+
+    def "sollte nach einer Änderung kein veraltetes Buch liefern"() {
+        given: "Ein gecachtes Buch"
+        def original = createBook(1L, "978-3-16-148410-0")
+        def updated = createBook(1L, "978-3-16-148410-0")
+        updated.title = "Clean Code - 2. Auflage"
+        bookRepository.findById(1L) >>> [Optional.of(original), Optional.of(updated)]
+        cache.findById(1L)
+
+        when: "Das Speichern per Event gemeldet wird"
+        cache.onBookChanged(BookChangedEvent.saved(updated))
+
+        then: "Liefert der nächste Zugriff den neuen Stand"
+        cache.findById(1L).get().title == "Clean Code - 2. Auflage"
+    }
+
+    def "sollte über die ISBN gecachte Bücher liefern"() {
+        given:
+        def book = createBook(1L, "978-3-16-148410-0")
+
+        when:
+        def first = cache.findByIsbn("978-3-16-148410-0")
+        def second = cache.findByIsbn("978-3-16-148410-0")
+
+        then: "ISBN und Buch werden je einmal geladen"
+        1 * bookRepository.findByIsbn("978-3-16-148410-0") >> Optional.of(book)
+        1 * bookRepository.findById(1L) >> Optional.of(book)
+        first.get().is(second.get())
+    }
+
+    def "sollte eine geänderte ISBN nicht mehr unter der alten ISBN liefern"() {
+        given: "Ein über die alte ISBN gecachtes Buch"
+        def original = createBook(1L, "978-3-16-148410-0")
+        def changed = createBook(1L, "978-3-16-148410-9")
+        bookRepository.findByIsbn("978-3-16-148410-0") >>> [Optional.of(original), Optional.empty()]
+        bookRepository.findById(1L) >>> [Optional.of(original), Optional.of(changed)]
+        cache.findByIsbn("978-3-16-148410-0")
+
+        when: "Die ISBN geändert wird"
+        cache.onBookChanged(BookChangedEvent.saved(changed))
+
+        then: "Ist das Buch unter der alten ISBN nicht mehr zu finden"
+        cache.findByIsbn("978-3-16-148410-0").isEmpty()
+    }
+
+    def "sollte gelöschte Bücher nicht mehr liefern"() {
+        given:
+        def book = createBook(1L, "978-3-16-148410-0")
+        bookRepository.findById(1L) >>> [Optional.of(book), Optional.empty()]
+        cache.findById(1L)
+
+        when:
+        cache.onBookChanged(BookChangedEvent.deleted(book))
+
+        then:
+        cache.findById(1L).isEmpty()
+    }
+
+    private static Book createBook(Long id, String isbn) {
+        def book = new Book(isbn, "Clean Code", "Robert C. Martin", new BigDecimal("39.95"))
+        book.id = id
+        return book
+    }
+}
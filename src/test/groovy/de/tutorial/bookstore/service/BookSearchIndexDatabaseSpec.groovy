@@ -0,0 +1,52 @@
+package de.tutorial.bookstore.service
+
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.repository.BookRepository
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import spock.lang.Specification
+import spock.lang.Tag
+import spock.lang.Title
+
+@Tag("integration")
+@Title("Suchindex gegen die Datenbank-Suche")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = [
+    "spring.datasource.url=jdbc:h2:mem:searchindex;DB_CLOSE_DELAY=-1"
+])
+class BookSearchIndexDatabaseSpec extends Specification {
+
+    @Autowired
+    BookRepository bookRepository
+
+    @Autowired
+    BookSearchIndex bookSearchIndex
+
+    def "sollte auch mit %, _ und \\ im Suchbegriff dieselben Treffer wie searchBooks liefern"() {
+        given: "Bücher, deren Titel die LIKE-Sonderzeichen enthalten"
+        def saved = [
+            book("978-3-16-148411-1", "100% Java"),
+            book("978-3-16-148411-2", "snake_case für Einsteiger"),
+            book("978-3-16-148411-3", "Die a_c-Regel"),
+            book("978-3-16-148411-4", "Abc der Programmierung"),
+            book("978-3-16-148411-5", "Pfade wie C:\\Daten")
+        ].collect { bookRepository.save(it) }
+
+        expect: "Index und SQL-Abfrage stimmen für jeden Suchbegriff überein"
+        ["_", "%", "a_c", "100%", "%java", "e_c", "e\\_c", "\\", "\\\\", "abc\\", "", "java", "abc"].each { query ->
+            assert bookSearchIndex.searchIds(query) == bookRepository.searchBooks(query)*.id.sort() : query
+        }
+
+        and: "% und _ sind Platzhalter, \\ macht das folgende Zeichen wörtlich"
+        bookSearchIndex.searchIds("%").size() == bookRepository.count()
+        bookSearchIndex.searchIds("a_c").containsAll(saved[2, 3]*.id)
+        bookSearchIndex.searchIds("e\\_c") == [saved[1].id]
+        bookSearchIndex.searchIds("\\\\") == [saved[4].id]
+
+        cleanup:
+        saved.each { bookRepository.deleteById(it.id) }
+    }
+
+    private static Book book(String isbn, String title) {
+        new Book(isbn, title, "Erika Mustermann", new BigDecimal("19.90"))
+    }
+}
@@ -0,0 +1,125 @@
+package de.tutorial.bookstore.service
+
+import de.tutorial.bookstore.event.BookChangedEvent
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.repository.BookRepository
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Title
+import spock.lang.Unroll
+
+@Title("N-Gramm Suchindex")
+class BookSearchIndexSpec extends Specification {
+
+    def bookRepository = Mock(BookRepository)
+
+    @Subject
+    def index = new BookSearchIndex(bookRepository)
+
+    def books = [
+        createBook(1L, "978-3-16-148410-0", "Clean Code", "Robert C. Martin"),
+        createBook(2L, "978-0-321-35668-0", "Effective Java", "Joshua Bloch"),
+        createBook(3L, "978-1-449-37320-3", "Java 8 in Action", "Raoul-Gabriel Urma"),
+        createBook(4L, "978-0-13-468599-1", "Refactoring", "Martin Fowler"),
+        createBook(5L, "978-3-8362-7519-4", "Java ist auch eine Insel", "Christian Ullenboom"),
+        createBook(6L, "978-3-446-46408-1", "Kotlin", "Jörg Staudemeyer")
+    ]
+
+    def setup() {
+        books.each { index.index(it) }
+    }
+
+    @Unroll
+    def "sollte für '#query' dieselben Treffer wie LIKE %query% liefern"() {
+        expect: "Index und Referenz-Semantik stimmen überein"
+        index.searchIds(query) == likeReference(query)
+
+        where:
+        query << ["", "j", "ja", "jav", "java", "java ", "martin", "in", "978-3", "-0", "0-3", "jörg",
+                  "robert c. martin", "xyz", "insel", "a", "clean code!", "ullenboom"]
+    }
+
+    def "sollte alle Teilstrings der Titel exakt finden"() {
+        given: "Alle Teilstrings aller Titel als Suchbegriffe"
+        def queries = books.collectMany { book ->
+            def title = book.title.toLowerCase(Locale.ROOT)
+            (0..<title.length()).collectMany { start ->
+                (start + 1..title.length()).collect { end -> title.substring(start, end) }
+            }
+        }.unique()
+
+        expect: "Jeder Suchbegriff liefert dieselben IDs wie die Referenz"
+        queries.every { index.searchIds(it) == likeReference(it) }
+    }
+
+    def "sollte geänderte Felder neu indizieren"() {
+        given: "Ein Buch mit geändertem Titel"
+        def renamed = createBook(1L, "978-3-16-148410-0", "Sauberer Code", "Robert C. Martin")
+
+        when: "Das Buch neu indiziert wird"
+        index.index(renamed)
+
+        then: "Wird der alte Titel nicht mehr gefunden, der neue schon"
+        index.searchIds("clean").isEmpty()
+        index.searchIds("sauberer") == [1L]
+        index.size() == books.size()
+    }
+
+    def "sollte gelöschte Bücher über das Event entfernen"() {
+        when: "Ein Lösch-Event eintrifft"
+        index.onBookChanged(BookChangedEvent.deleted(books[3]))
+
+        then: "Wird das Buch nicht mehr gefunden"
+        index.searchIds("refactoring").isEmpty()
+        index.searchIds("martin") == [1L]
+        index.size() == books.size() - 1
+    }
+
+    def "sollte Bücher der Treffer per ID nachladen und sortieren"() {
+        when: "Nach 'java' gesucht wird"
+        def result = index.search("java")
+
+        then: "Werden nur die Treffer-IDs geladen"
+        1 * bookRepository.findAllById([2L, 3L, 5L]) >> [books[4], books[1], books[2]]
+
+        and: "Sind die Ergebnisse nach ID sortiert"
+        result*.id == [2L, 3L, 5L]
+    }
+
+    def "sollte ohne Treffer keine Datenbank-Abfrage auslösen"() {
+        when:
+        def result = index.search("gibt es nicht")
+
+        then:
+        0 * bookRepository.findAllById(_)
+        result.isEmpty()
+    }
+
+    def "sollte den Index beim Start seitenweise aus dem Repository aufbauen"() {
+        given: "Ein leerer Index über einem Repository mit zwei Büchern"
+        def freshIndex = new BookSearchIndex(bookRepository)
+
+        when: "Der Index aufgebaut wird"
+        freshIndex.rebuild()
+
+        then: "Wird ab ID 0 gelesen"
+        1 * bookRepository.findByIdGreaterThanOrderByIdAsc(0L, _) >> [books[0], books[1]]
+
+        and: "Sind beide Bücher durchsuchbar"
+        freshIndex.size() == 2
+        freshIndex.searchIds("bloch") == [2L]
+    }
+
+    private List<Long> likeReference(String query) {
+        def q = query.toLowerCase(Locale.ROOT)
+        books.findAll { book ->
+            [book.title, book.author, book.isbn].any { it.toLowerCase(Locale.ROOT).contains(q) }
+        }*.id.sort()
+    }
+
+    private static Book createBook(Long id, String isbn, String title, String author) {
+        def book = new Book(isbn, title, author, new BigDecimal("29.99"))
+        book.id = id
+        return book
+    }
+}
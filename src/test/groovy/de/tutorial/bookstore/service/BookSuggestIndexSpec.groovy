@@ -0,0 +1,140 @@
+package de.tutorial.bookstore.service
+
+import de.tutorial.bookstore.dto.BookSuggestion
+import de.tutorial.bookstore.event.BookChangedEvent
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.repository.BookRepository
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Title
+
+@Title("Präfix-Vorschläge über Titel und Autor")
+class BookSuggestIndexSpec extends Specification {
+
+    def bookRepository = Mock(BookRepository)
+
+    @Subject
+    def index = new BookSuggestIndex(bookRepository)
+
+    def books = [
+        createBook(1L, "Clean Code", "Robert C. Martin", 4),
+        createBook(2L, "Effective Java", "Joshua Bloch", 10),
+        createBook(3L, "Java 8 in Action", "Raoul-Gabriel Urma", 2),
+        createBook(4L, "Refactoring", "Martin Fowler", 7),
+        createBook(5L, "Java ist auch eine Insel", "Christian Ullenboom", 25),
+        createBook(6L, "Clean Architecture", "Robert C. Martin", 3)
+    ]
+
+    def setup() {
+        books.each { index.index(it) }
+    }
+
+    def "sollte Titel und Autoren ab jedem Wortanfang nach Lagerbestand liefern"() {
+        expect:
+        texts("java") == ["Java ist auch eine Insel", "Effective Java", "Java 8 in Action"]
+        texts("JA") == ["Java ist auch eine Insel", "Effective Java", "Java 8 in Action"]
+        texts("insel") == ["Java ist auch eine Insel"]
+        texts("martin") == ["Martin Fowler", "Robert C. Martin"]
+        texts("ava").isEmpty()
+        texts("").isEmpty()
+    }
+
+    def "sollte den Lagerbestand gleicher Autoren zusammenzählen"() {
+        expect: "Beide Bücher von Robert C. Martin zählen zusammen"
+        index.suggest("robert", 10)*.stock() == [7L]
+    }
+
+    def "sollte höchstens limit Vorschläge liefern"() {
+        expect:
+        index.suggest("c", 2)*.text() == ["Christian Ullenboom", "Robert C. Martin"]
+        index.suggest("c", 100).size() == 4
+    }
+
+    def "sollte eine Bestandsänderung sofort in der Reihenfolge berücksichtigen"() {
+        when: "Java 8 in Action wird nachgeliefert"
+        def restocked = createBook(3L, "Java 8 in Action", "Raoul-Gabriel Urma", 50)
+        index.onBookChanged(BookChangedEvent.saved(restocked))
+
+        then:
+        texts("java") == ["Java 8 in Action", "Java ist auch eine Insel", "Effective Java"]
+    }
+
+    def "sollte umbenannte und gelöschte Bücher nicht mehr vorschlagen"() {
+        when: "Ein Buch umbenannt und eines gelöscht wird"
+        index.index(createBook(1L, "Sauberer Code", "Robert C. Martin", 4))
+        index.onBookChanged(BookChangedEvent.deleted(books[3]))
+
+        then:
+        texts("clean") == ["Clean Architecture"]
+        texts("sauber") == ["Sauberer Code"]
+        texts("martin") == ["Robert C. Martin"]
+        texts("fowler").isEmpty()
+    }
+
+    def "sollte mit vielen Büchern dieselben Vorschläge liefern wie ein Durchsuchen aller Texte"() {
+        given: "Viele Bücher mit überlappenden Titeln, danach Änderungen und Löschungen"
+        def random = new Random(42)
+        def words = ["java", "jakarta", "insel", "clean", "code", "kotlin", "ja", "co"]
+        def catalog = [:]
+        300.times {
+            long id = 100 + random.nextInt(80)
+            if (random.nextInt(5) == 0) {
+                catalog.remove(id)
+                index.remove(id)
+            } else {
+                def title = (1..(1 + random.nextInt(3))).collect { words[random.nextInt(words.size())] }.join(" ")
+                def book = createBook(id, title, "Autor ${random.nextInt(5)}", random.nextInt(20))
+                catalog[id] = book
+                index.index(book)
+            }
+        }
+        def all = books.findAll { it.id < 100 } + catalog.values()
+
+        expect:
+        ["j", "ja", "java", "c", "co", "code j", "autor", "insel"].every { prefix ->
+            index.suggest(prefix, BookSuggestIndex.TOP_K) == reference(all, prefix)
+        }
+    }
+
+    def "sollte den Trie beim Start seitenweise aus dem Repository aufbauen"() {
+        given:
+        def freshIndex = new BookSuggestIndex(bookRepository)
+
+        when:
+        freshIndex.rebuild()
+
+        then:
+        1 * bookRepository.findByIdGreaterThanOrderByIdAsc(0L, _) >> [books[0], books[1]]
+
+        and:
+        freshIndex.suggest("j", 10)*.text() == ["Effective Java", "Joshua Bloch"]
+        freshIndex.size() == 4
+    }
+
+    private List<String> texts(String prefix) {
+        index.suggest(prefix, BookSuggestIndex.TOP_K)*.text()
+    }
+
+    /**
+     * Referenz: alle Titel und Autoren prüfen, gleiche Texte zusammenfassen, nach Bestand und Text sortieren
+     */
+    private static List reference(List<Book> books, String prefix) {
+        def stock = [:].withDefault { 0L }
+        books.each { book ->
+            [book.title, book.author].unique().each { stock[it] += book.stockQuantity }
+        }
+        stock.findAll { text, sum ->
+            def normalized = text.toLowerCase(Locale.ROOT)
+            normalized.startsWith(prefix) || normalized.contains(" " + prefix)
+        }.collect { text, sum -> new BookSuggestion(text, sum) }
+                .sort { a, b -> b.stock() <=> a.stock() ?: a.text().compareToIgnoreCase(b.text()) }
+                .take(BookSuggestIndex.TOP_K)
+    }
+
+    private static Book createBook(Long id, String title, String author, int stock) {
+        def book = new Book("978-3-16-148410-${id}", title, author, new BigDecimal("29.99"))
+        book.id = id
+        book.stockQuantity = stock
+        return book
+    }
+}
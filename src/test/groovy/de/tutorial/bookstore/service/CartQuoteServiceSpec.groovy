@@ -0,0 +1,102 @@
+package de.tutorial.bookstore.service
+
+import de.tutorial.bookstore.dto.CartLine
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.repository.BookRepository
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Title
+
+@Title("Warenkorb-Kalkulation")
+class CartQuoteServiceSpec extends Specification {
+
+    def bookRepository = Mock(BookRepository)
+    def priceCalculationService = new PriceCalculationService()
+
+    @Subject
+    def service = new CartQuoteService(bookRepository, priceCalculationService)
+
+    def cleanCode = createBook(1L, "978-3-16-148410-0", "Clean Code", "39.95")
+    def effectiveJava = createBook(2L, "978-0-321-35668-0", "Effective Java", "45.99")
+
+    def "sollte alle Bücher mit einer Abfrage je Schlüsselart laden und den Warenkorb bepreisen"() {
+        given: "Eine Position per ID und eine per ISBN"
+        def lines = [
+            new CartLine(1L, null, 3),
+            new CartLine(null, "978-0-321-35668-0", 1)
+        ]
+
+        when:
+        def quote = service.quote(lines)
+
+        then: "Wird das Repository einmal per ID und einmal per ISBN gefragt"
+        1 * bookRepository.findAllById([1L] as Set) >> [cleanCode]
+        1 * bookRepository.findByIsbnIn(["978-0-321-35668-0"] as Set) >> [effectiveJava]
+        0 * bookRepository._
+
+        and: "Stimmen die Positionen mit der Einzelberechnung überein"
+        quote.lines()*.discount() == [new BigDecimal("5.99"), new BigDecimal("0.00")]
+        quote.lines()[0].lineTotal() == priceCalculationService.calculateFinalPrice(new BigDecimal("39.95"), 3)
+
+        and: "Werden MwSt und Versand auf die Nettosumme berechnet"
+        quote.subtotal() == new BigDecimal("165.84")
+        quote.discount() == new BigDecimal("5.99")
+        quote.net() == new BigDecimal("159.85")
+        quote.vat() == priceCalculationService.calculateVAT(new BigDecimal("159.85"))
+        quote.shipping() == 0
+        quote.total() == new BigDecimal("171.04")
+    }
+
+    def "sollte Versandkosten für kleine Bestellungen berechnen"() {
+        given:
+        bookRepository.findAllById(_) >> [cleanCode]
+
+        when:
+        def quote = service.quote([new CartLine(1L, null, 1)])
+
+        then: "Ohne ISBN-Positionen genügt eine Abfrage"
+        0 * bookRepository.findByIsbnIn(_)
+        quote.shipping() == new BigDecimal("2.95")
+        quote.total() == new BigDecimal("39.95") + new BigDecimal("2.80") + new BigDecimal("2.95")
+    }
+
+    def "sollte unbekannte Bücher ablehnen"() {
+        given:
+        bookRepository.findAllById(_) >> [cleanCode]
+        bookRepository.findByIsbnIn(_) >> []
+
+        when:
+        service.quote([new CartLine(1L, null, 1), new CartLine(null, "978-3-8362-7519-4", 2)])
+
+        then:
+        def e = thrown(UnknownBookException)
+        e.message.contains("978-3-8362-7519-4")
+    }
+
+    def "sollte große Warenkörbe parallel und in Eingabereihenfolge bepreisen"() {
+        given: "Ein B2B-Warenkorb oberhalb der Parallelisierungsschwelle"
+        def books = (1..50).collect { n -> createBook(n as Long, "978-3-${n}-1-0", "Buch ${n}", "${n}.95") }
+        def lines = (1..CartQuoteService.PARALLEL_THRESHOLD + 1).collect { n -> new CartLine((n % 50 + 1) as Long, null, n % 12 + 1) }
+        bookRepository.findAllById(_) >> books
+
+        when:
+        def quote = service.quote(lines)
+
+        then: "Entspricht jede Position der BigDecimal-Einzelberechnung"
+        quote.lines().size() == lines.size()
+        [lines, quote.lines()].transpose().every { line, quoted ->
+            def book = books[(line.bookId() - 1) as int]
+            quoted.bookId() == line.bookId() &&
+                quoted.lineTotal() == priceCalculationService.calculateFinalPrice(book.price, line.quantity())
+        }
+
+        and: "Ist die Summe die Summe der Positionen"
+        quote.net() == quote.lines()*.lineTotal().sum()
+    }
+
+    private static Book createBook(Long id, String isbn, String title, String price) {
+        def book = new Book(isbn, title, "Autor", new BigDecimal(price))
+        book.id = id
+        return book
+    }
+}
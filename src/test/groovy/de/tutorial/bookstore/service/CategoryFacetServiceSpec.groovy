@@ -0,0 +1,110 @@
+package de.tutorial.bookstore.service
+
+import de.tutorial.bookstore.event.BookChangedEvent
+import de.tutorial.bookstore.model.Book
+import de.tutorial.bookstore.repository.BookRepository
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Title
+
+@Title("Kategorie-Facetten")
+class CategoryFacetServiceSpec extends Specification {
+
+    def bookRepository = Mock(BookRepository)
+
+    @Subject
+    def service = new CategoryFacetService(bookRepository)
+
+    def books = [
+        createBook(1L, "Clean Code", "Software Engineering", 15),
+        createBook(2L, "Effective Java", "Java", 0),
+        createBook(3L, "Java 8 in Action", "Java", 12),
+        createBook(4L, "Ohne Kategorie", null, 3)
+    ]
+
+    def "sollte Facetten beim Start aus dem Repository aufbauen"() {
+        when:
+        service.rebuild()
+
+        then:
+        1 * bookRepository.findByIdGreaterThanOrderByIdAsc(0L, _) >> books
+
+        and: "Zählt Bücher und lieferbare Bücher je Kategorie, ohne Bücher ohne Kategorie"
+        service.facets()*.toString() == [
+            "CategoryFacet[category=Java, count=2, inStock=1]",
+            "CategoryFacet[category=Software Engineering, count=1, inStock=1]"
+        ]
+        service.categories() == ["Java", "Software Engineering"]
+    }
+
+    def "sollte Kategorie- und Bestandswechsel inkrementell verbuchen"() {
+        given:
+        books.each { service.update(it) }
+
+        when: "Effective Java wieder lieferbar ist und Clean Code die Kategorie wechselt"
+        service.onBookChanged(BookChangedEvent.saved(createBook(2L, "Effective Java", "Java", 5)))
+        service.onBookChanged(BookChangedEvent.saved(createBook(1L, "Clean Code", "Java", 15)))
+
+        then: "Verschwindet die leere Kategorie, Java zählt alle drei"
+        service.categories() == ["Java"]
+        with(service.facets()[0]) {
+            count() == 3
+            inStock() == 3
+        }
+    }
+
+    def "sollte gelöschte Bücher abziehen"() {
+        given:
+        books.each { service.update(it) }
+
+        when:
+        service.onBookChanged(BookChangedEvent.deleted(books[2]))
+
+        then:
+        with(service.facets().find { it.category() == "Java" }) {
+            count() == 1
+            inStock() == 0
+        }
+    }
+
+    def "sollte Bücher einer Kategorie per ID laden und unbekannte Kategorien ohne Abfrage beantworten"() {
+        given:
+        books.each { service.update(it) }
+
+        when:
+        def java = service.findBooks("Java")
+        def unknown = service.findBooks("Kochbücher")
+
+        then: "Nur die IDs der Kategorie werden geladen"
+        1 * bookRepository.findAllById({ it as Set == [2L, 3L] as Set }) >> [books[2], books[1]]
+        0 * bookRepository._
+
+        and:
+        java*.id == [2L, 3L]
+        unknown.isEmpty()
+    }
+
+    def "sollte die Versionen beider betroffener Kategorien erhöhen"() {
+        given:
+        books.each { service.update(it) }
+        def java = service.categoryVersion("Java")
+        def engineering = service.categoryVersion("Software Engineering")
+        def catalog = service.catalogVersion()
+
+        when: "Clean Code nach Java wechselt"
+        service.onBookChanged(BookChangedEvent.saved(createBook(1L, "Clean Code", "Java", 15)))
+
+        then: "Ändern sich die alte und die neue Kategorie sowie der Gesamtkatalog"
+        service.categoryVersion("Java") > java
+        service.categoryVersion("Software Engineering") > engineering
+        service.catalogVersion() > catalog
+    }
+
+    private static Book createBook(Long id, String title, String category, int stock) {
+        def book = new Book("978-3-16-14841${id}-0", title, "Autor", new BigDecimal("29.99"))
+        book.id = id
+        book.category = category
+        book.stockQuantity = stock
+        return book
+    }
+}
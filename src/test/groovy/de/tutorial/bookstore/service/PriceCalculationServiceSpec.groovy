@@ -1,5 +1,6 @@
 package de.tutorial.bookstore.service
 
+import groovy.transform.CompileStatic
 import spock.lang.Specification
 import spock.lang.Subject
 import spock.lang.Title
@@ -80,4 +81,76 @@ class PriceCalculationServiceSpec extends Specification {
         then: "Ist der Gesamtpreis korrekt"
         totalWithVat == new BigDecimal("107.00")
     }
-}
\ No newline at end of file
+    
+    def "sollte Beträge verlustfrei in Cent umrechnen"() {
+        expect:
+        PriceCalculationService.toCents(new BigDecimal("39.95")) == 3995L
+        PriceCalculationService.toCents(new BigDecimal("5")) == 500L
+        PriceCalculationService.fromCents(3995L) == new BigDecimal("39.95")
+        
+        when: "Ein Betrag mit Bruchteilen von Cent umgerechnet wird"
+        PriceCalculationService.toCents(new BigDecimal("0.005"))
+        
+        then:
+        thrown(ArithmeticException)
+    }
+    
+    @Unroll
+    def "sollte in Cent für jeden gültigen Buchpreis bei Menge #quantity exakt wie BigDecimal runden"() {
+        expect: "Alle Preise von 0.01€ bis 9999.99€ liefern identische Ergebnisse"
+        CentEquivalence.firstQuantityMismatch(service, quantity) == null
+        
+        where:
+        quantity << [1, 2, 3, 4, 5, 9, 10, 11, 100]
+    }
+    
+    def "sollte MwSt und Versand in Cent für jeden gültigen Buchpreis exakt wie BigDecimal berechnen"() {
+        expect:
+        CentEquivalence.firstVatOrShippingMismatch(service) == null
+    }
+    
+    @Unroll
+    def "sollte negative Beträge wie BigDecimal HALF_UP runden (#cents Cent)"() {
+        expect: "Rundung von null weg"
+        service.vatCents(cents) == PriceCalculationService.toCents(service.calculateVAT(PriceCalculationService.fromCents(cents)))
+        
+        where:
+        cents << [-1L, -7L, -8L, -50L, -3995L]
+    }
+}
+
+/**
+ * Vergleicht Cent- und BigDecimal-Variante über den gesamten Wertebereich von {@code Book.price}.
+ * Statisch kompiliert, damit die rund eine Million Aufrufe je Menge schnell laufen.
+ */
+@CompileStatic
+class CentEquivalence {
+    
+    static final long MIN_PRICE_CENTS = 1L       // @DecimalMin("0.01")
+    static final long MAX_PRICE_CENTS = 999_999L // @DecimalMax("9999.99")
+    
+    static String firstQuantityMismatch(PriceCalculationService service, int quantity) {
+        for (long cents = MIN_PRICE_CENTS; cents <= MAX_PRICE_CENTS; cents++) {
+            BigDecimal price = PriceCalculationService.fromCents(cents)
+            long discount = PriceCalculationService.toCents(service.calculateQuantityDiscount(price, quantity))
+            long finalPrice = PriceCalculationService.toCents(service.calculateFinalPrice(price, quantity))
+            if (service.quantityDiscountCents(cents, quantity) != discount
+                    || service.finalPriceCents(cents, quantity) != finalPrice) {
+                return "Preis ${price}, Menge ${quantity}".toString()
+            }
+        }
+        return null
+    }
+    
+    static String firstVatOrShippingMismatch(PriceCalculationService service) {
+        for (long cents = MIN_PRICE_CENTS; cents <= MAX_PRICE_CENTS; cents++) {
+            BigDecimal price = PriceCalculationService.fromCents(cents)
+            if (service.vatCents(cents) != PriceCalculationService.toCents(service.calculateVAT(price))
+                    || service.totalWithVatCents(cents) != PriceCalculationService.toCents(service.calculateTotalWithVAT(price))
+                    || service.shippingCostCents(cents) != PriceCalculationService.toCents(service.calculateShippingCost(price))) {
+                return "Preis ${price}".toString()
+            }
+        }
+        return null
+    }
+}
@@ -0,0 +1,122 @@
+package de.tutorial.bookstore.service
+
+import de.tutorial.bookstore.dto.StockChange
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.jdbc.core.JdbcTemplate
+import spock.lang.Specification
+import spock.lang.Tag
+import spock.lang.Title
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+@Tag("integration")
+@Title("Lagerbestand unter Last")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = [
+    "spring.datasource.url=jdbc:h2:mem:stockstress;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+])
+class StockServiceStressSpec extends Specification {
+
+    static final int THREADS = 200
+
+    @Autowired
+    StockService stockService
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    def "sollte den letzten Bestand eines Bestsellers nie überverkaufen"() {
+        given: "50 Exemplare und 200 gleichzeitige Bestellungen über je ein Exemplar"
+        setStock(1L, 50)
+
+        when:
+        def results = concurrently(THREADS) { stockService.reserve([new StockChange(1L, 1)]) }
+
+        then: "Genau 50 Bestellungen gelingen, der Rest bekommt einen Konflikt"
+        results.count { it == null } == 50
+        results.count { it instanceof InsufficientStockException } == THREADS - 50
+        stock(1L) == 0
+    }
+
+    def "sollte gegenläufige Batches ohne Deadlock und ohne verlorene Updates verarbeiten"() {
+        given:
+        setStock(1L, 1_000)
+        setStock(2L, 1_000)
+
+        when: "Hälfte der Threads bucht 1 → 2, die andere 2 → 1, jeweils reservieren und freigeben"
+        def results = concurrently(THREADS) { int n ->
+            def items = n % 2 == 0
+                ? [new StockChange(1L, 2), new StockChange(2L, 3)]
+                : [new StockChange(2L, 3), new StockChange(1L, 2)]
+            stockService.reserve(items)
+            stockService.release(items)
+        }
+
+        then: "Alle Batches gelingen und der Bestand ist wieder vollständig"
+        results.every { it == null }
+        stock(1L) == 1_000
+        stock(2L) == 1_000
+    }
+
+    def "sollte einen Batch komplett zurückrollen, wenn eine Position fehlschlägt"() {
+        given:
+        setStock(1L, 5)
+        setStock(2L, 0)
+
+        when:
+        stockService.reserve([new StockChange(1L, 1), new StockChange(2L, 1)])
+
+        then:
+        def e = thrown(InsufficientStockException)
+        e.bookId == 2L
+        stock(1L) == 5
+    }
+
+    def "sollte unbekannte Bücher melden"() {
+        when:
+        stockService.reserve([new StockChange(999_999L, 1)])
+
+        then:
+        thrown(UnknownBookException)
+    }
+
+    private void setStock(Long id, int quantity) {
+        jdbcTemplate.update("UPDATE books SET stock_quantity = ? WHERE id = ?", quantity, id)
+    }
+
+    private int stock(Long id) {
+        jdbcTemplate.queryForObject("SELECT stock_quantity FROM books WHERE id = ?", Integer, id)
+    }
+
+    /**
+     * Startet alle Aufgaben gleichzeitig; liefert je Aufgabe null oder die geworfene Exception
+     */
+    private static List<Throwable> concurrently(int count, Closure task) {
+        def pool = Executors.newFixedThreadPool(64)
+        def start = new CountDownLatch(1)
+        try {
+            def futures = (0..<count).collect { int n ->
+                pool.submit({
+                    start.await()
+                    task.call(n)
+                    return null
+                } as Callable)
+            }
+            start.countDown()
+            return futures.collect { future ->
+                try {
+                    future.get(60, TimeUnit.SECONDS)
+                    return null
+                } catch (ExecutionException e) {
+                    return e.cause
+                }
+            }
+        } finally {
+            pool.shutdownNow()
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package de.tutorial.bookstore.snapshot
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import de.tutorial.bookstore.model.Book
+import org.springframework.core.io.ClassPathResource
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.datasource.DriverManagerDataSource
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Title
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+
+@Title("Katalog-Snapshot: Lookups direkt aus der Memory-Mapped-Datei")
+class CatalogSnapshotSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    def objectMapper = new ObjectMapper()
+
+    @AutoCleanup("close")
+    CatalogSnapshotService service
+
+    def "sollte Bücher per ID, ISBN und Kategorie finden"() {
+        given:
+        def snapshot = snapshot([
+            book(3L, "978-3-16-148410-0", "Java"),
+            book(7L, "978-0-321-35668-0", null),
+            book(9L, "978-3-86680-192-9", "Java"),
+            book(12L, "978-1-491-95038-9", "Älteres")
+        ])
+
+        expect:
+        snapshot.size() == 4
+        snapshot.id(snapshot.findById(9L)) == 9L
+        snapshot.findById(8L) == -1
+        snapshot.id(snapshot.findByIsbn("978-0-321-35668-0")) == 7L
+        snapshot.findByIsbn("978-0-000-00000-0") == -1
+
+        and: "Kategorien liefern alle Treffer nach ID sortiert, Bücher ohne Kategorie fehlen"
+        snapshot.findByCategory("Java").collect { snapshot.id(it) } == [3L, 9L]
+        snapshot.findByCategory("Älteres").collect { snapshot.id(it) } == [12L]
+        snapshot.findByCategory("java") == [] as int[]
+    }
+
+    def "sollte dasselbe JSON liefern wie die serialisierte Entity"() {
+        given:
+        def withNulls = book(5L, "978-3-16-148410-0", null)
+        withNulls.description = null
+        withNulls.stockQuantity = null
+        def complete = book(6L, "978-0-321-35668-0", "Java")
+        complete.title = "Sonderzeichen: \"ä\" \\ \n"
+        def snapshot = snapshot([withNulls, complete])
+
+        expect:
+        [withNulls, complete].every { book ->
+            def json = new ByteArrayOutputStream()
+            objectMapper.getFactory().createGenerator(json).withCloseable {
+                snapshot.writeBook(snapshot.findById(book.id), it)
+            }
+            objectMapper.readTree(json.toByteArray()) == objectMapper.readTree(objectMapper.writeValueAsBytes(book))
+        }
+    }
+
+    def "sollte nach Änderungen einmal neu bauen und laufende Leser nicht stören"() {
+        given: "Ein Snapshot der Testdaten"
+        def jdbc = new JdbcTemplate(database())
+        service = new CatalogSnapshotService(jdbc, objectMapper, dir.toString(), Duration.ofMillis(50))
+        service.init()
+        def before = service.current()
+        def record = before.findByIsbn("978-0-321-35668-0")
+
+        when: "Ein Buch geändert wird und mehrere Änderungen gemeldet werden"
+        jdbc.update("UPDATE books SET title = ?, version = version + 1 WHERE isbn = ?", "Effective Java, 3rd", "978-0-321-35668-0")
+        service.scheduleRebuild()
+        service.scheduleRebuild()
+
+        then: "Kommt ein einziger neuer Snapshot mit der Änderung"
+        new PollingConditions(timeout: 5).eventually {
+            assert service.current() != before
+        }
+        service.current().file().fileName.toString() == "catalog-2.snapshot"
+        title(service.current(), service.current().findByIsbn("978-0-321-35668-0")) == "Effective Java, 3rd"
+
+        and: "Der alte Snapshot liefert weiter seinen Stand"
+        title(before, record) == "Effective Java"
+    }
+
+    def "sollte beim Schließen Datei und eigenes Temp-Verzeichnis löschen"() {
+        given: "Ein Service ohne konfiguriertes Verzeichnis"
+        service = new CatalogSnapshotService(new JdbcTemplate(database()), objectMapper, "", Duration.ofSeconds(2))
+        service.init()
+        def file = service.current().file()
+
+        when:
+        service.close()
+
+        then:
+        !Files.exists(file)
+        !Files.exists(file.parent)
+    }
+
+    private CatalogSnapshot snapshot(List<Book> books) {
+        def writer = new CatalogSnapshotWriter()
+        books.each { writer.add(it) }
+        CatalogSnapshot.open(writer.write(dir.resolve("catalog.snapshot")))
+    }
+
+    private String title(CatalogSnapshot snapshot, int record) {
+        def json = new ByteArrayOutputStream()
+        objectMapper.getFactory().createGenerator(json).withCloseable { snapshot.writeBook(record, it) }
+        objectMapper.readTree(json.toByteArray()).get("title").asText()
+    }
+
+    private static Book book(Long id, String isbn, String category) {
+        def book = new Book(isbn, "Buch ${id}", "Autor", new BigDecimal("19.90"))
+        book.id = id
+        book.category = category
+        book.stockQuantity = 3
+        book.description = "Beschreibung"
+        book.version = 2
+        book
+    }
+
+    private static DriverManagerDataSource database() {
+        def dataSource = new DriverManagerDataSource("jdbc:h2:mem:snapshot-${UUID.randomUUID()};DB_CLOSE_DELAY=-1", "sa", "")
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql")).execute(dataSource)
+        dataSource
+    }
+}
@@ -0,0 +1,60 @@
+package de.tutorial.fixtures
+
+import de.tutorial.bookstore.pricing.PricingRules
+import de.tutorial.bookstore.service.PriceCalculationService
+import spock.lang.Specification
+import spock.lang.Title
+
+import javax.sql.DataSource
+
+@Title("Gemeinsamer Spring-Context für FitNesse Fixtures")
+class FixtureContextSpec extends Specification {
+
+    def "sollte Preis-Fixtures ohne Datenbank bedienen"() {
+        when:
+        def context = FixtureContext.pricing()
+
+        then:
+        context.getBeanNamesForType(DataSource).length == 0
+        context.getBean(PriceCalculationService) != null
+        FixtureContext.pricingStartupMillis() >= 0
+    }
+
+    def "sollte den Context für alle Fixtures nur einmal starten"() {
+        expect:
+        FixtureContext.pricing().is(FixtureContext.pricing())
+        new SpringAwarePriceCalculationFixture().priceService.is(new IntegratedPriceCalculationFixture().priceService)
+    }
+
+    def "sollte mit dem gemeinsamen Service dieselben Preise wie bisher berechnen"() {
+        given:
+        def fixture = new IntegratedPriceCalculationFixture()
+        fixture.buchpreis = 29.99
+        fixture.anzahl = 3
+
+        expect:
+        fixture.rabattbetrag() == 4.50d
+        fixture.endpreis() == 85.47d
+    }
+
+    def "sollte in allen Fixtures dieselbe Rabattstaffel wie der Service verwenden"() {
+        given:
+        def engine = FixtureContext.pricingRules()
+        def original = engine.current().rules()
+        def table = new SimplePriceTable()
+        table.anzahl = 4
+        def decision = new PriceCalculationDecisionTable()
+        decision.anzahl = 4
+
+        when: "Die Staffel zur Laufzeit ausgetauscht wird"
+        engine.replace(new PricingRules([new PricingRules.DiscountTier(4, 7)], original.shippingTiers()))
+
+        then:
+        table.rabattsatz() == "7%"
+        decision.rabattsatz() == "7%"
+        new SimplePriceCalculationWithRabattFixture(anzahl: 4).rabattsatz() == "7.00"
+
+        cleanup:
+        engine.replace(original)
+    }
+}
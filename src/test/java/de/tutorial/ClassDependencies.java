@@ -0,0 +1,150 @@
+package de.tutorial;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the project classes a class depends on, transitively, by reading the constant pool
+ * of the compiled class files. Only classes found in the given output directories are followed;
+ * JDK and library classes are left out (their versions are covered by the build file).
+ */
+final class ClassDependencies {
+
+    // Class names inside descriptors and signatures, e.g. "Lde/tutorial/bookstore/model/Book;"
+    private static final Pattern DESCRIPTOR_CLASS = Pattern.compile("L([\\w/$]+)[;<]");
+
+    private final List<Path> classDirectories;
+    private final Map<String, Optional<byte[]>> bytecode = new HashMap<>();
+
+    ClassDependencies(List<Path> classDirectories) {
+        this.classDirectories = classDirectories;
+    }
+
+    /**
+     * Bytecode of the class and everything it reaches inside the project, by binary name
+     * (e.g. "de.tutorial.fixtures.SimpleCalculator"), sorted so the result can be hashed
+     */
+    Map<String, byte[]> closure(Set<String> roots) {
+        Map<String, byte[]> found = new TreeMap<>();
+        Deque<String> pending = new ArrayDeque<>(roots);
+        while (!pending.isEmpty()) {
+            String name = pending.pop();
+            if (found.containsKey(name)) {
+                continue;
+            }
+            Optional<byte[]> bytes = bytecode(name);
+            if (bytes.isEmpty()) {
+                continue;
+            }
+            found.put(name, bytes.get());
+            for (String referenced : referencedClasses(bytes.get())) {
+                if (!found.containsKey(referenced)) {
+                    pending.push(referenced);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * All classes of a package that exist in the output directories (for Slim import tables)
+     */
+    Set<String> classesInPackage(String packageName) {
+        Set<String> names = new LinkedHashSet<>();
+        String relative = packageName.replace('.', '/');
+        for (Path directory : classDirectories) {
+            Path dir = directory.resolve(relative);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (var files = Files.list(dir)) {
+                files.map(p -> p.getFileName().toString())
+                        .filter(f -> f.endsWith(".class"))
+                        .forEach(f -> names.add(packageName + "." + f.substring(0, f.length() - ".class".length())));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return names;
+    }
+
+    private Optional<byte[]> bytecode(String name) {
+        return bytecode.computeIfAbsent(name, n -> {
+            String relative = n.replace('.', '/') + ".class";
+            for (Path directory : classDirectories) {
+                Path file = directory.resolve(relative);
+                if (Files.isRegularFile(file)) {
+                    try {
+                        return Optional.of(Files.readAllBytes(file));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+            return Optional.empty();
+        });
+    }
+
+    static Set<String> referencedClasses(byte[] classFile) {
+        Set<String> names = new LinkedHashSet<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile))) {
+            if (in.readInt() != 0xCAFEBABE) {
+                return names;
+            }
+            in.readUnsignedShort(); // minor
+            in.readUnsignedShort(); // major
+            int count = in.readUnsignedShort();
+            String[] utf8 = new String[count];
+            int[] classNameIndexes = new int[count];
+            int classes = 0;
+            for (int i = 1; i < count; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1 -> utf8[i] = in.readUTF();
+                    case 7 -> classNameIndexes[classes++] = in.readUnsignedShort();
+                    case 8, 16, 19, 20 -> in.skipBytes(2);
+                    case 15 -> in.skipBytes(3);
+                    case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipBytes(4);
+                    case 5, 6 -> {
+                        in.skipBytes(8);
+                        i++; // long and double take two slots
+                    }
+                    default -> throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+            for (int c = 0; c < classes; c++) {
+                String name = utf8[classNameIndexes[c]];
+                if (name != null && !name.startsWith("[")) {
+                    names.add(name.replace('/', '.'));
+                }
+            }
+            for (String value : utf8) {
+                if (value == null) {
+                    continue;
+                }
+                Matcher descriptor = DESCRIPTOR_CLASS.matcher(value);
+                while (descriptor.find()) {
+                    names.add(descriptor.group(1).replace('/', '.'));
+                }
+            }
+        } catch (IOException e) {
+            // Unreadable class file: no dependencies rather than no cache key
+        }
+        return names;
+    }
+}
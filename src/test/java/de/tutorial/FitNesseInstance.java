@@ -0,0 +1,169 @@
+package de.tutorial;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One FitNesse server process with its own HTTP port and its own Slim port range,
+ * so several instances can run test pages side by side on the same wiki.
+ */
+final class FitNesseInstance implements AutoCloseable {
+
+    // FitNesse hands out Slim ports from slim.port upwards, up to slim.pool.size of them
+    static final int SLIM_POOL_SIZE = 10;
+
+    private final int port;
+    private final int slimPort;
+    private Process process;
+
+    FitNesseInstance(int port, int slimPort) {
+        this.port = port;
+        this.slimPort = slimPort;
+    }
+
+    int port() {
+        return port;
+    }
+
+    void start(String wikiDir, String classpath, Path log) throws IOException {
+        Files.createDirectories(log.getParent());
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>(List.of(java, "-cp", classpath,
+                "-Dslim.port=" + slimPort,
+                "-Dslim.pool.size=" + SLIM_POOL_SIZE));
+        // Fast-start mode (-PfastStart): Slim JVMs are launched with the CDS archive
+        String commandPattern = System.getProperty("COMMAND_PATTERN");
+        if (commandPattern != null) {
+            command.add("-DCOMMAND_PATTERN=" + commandPattern);
+        }
+        command.addAll(List.of("fitnesseMain.FitNesseMain",
+                "-p", String.valueOf(port),
+                "-d", wikiDir,
+                "-e", "0"));
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    /**
+     * Polls the front page until the server answers instead of sleeping a fixed time.
+     * Gives up early if the process has already died (port taken, bad classpath).
+     */
+    boolean awaitReady(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long backoff = 50;
+        while (System.nanoTime() < deadline) {
+            if (process == null || !process.isAlive()) {
+                return false;
+            }
+            try {
+                HttpURLConnection conn = open("/FrontPage", Duration.ofSeconds(1));
+                int status = conn.getResponseCode();
+                conn.disconnect();
+                if (status == 200) {
+                    return true;
+                }
+            } catch (IOException notYet) {
+                // not listening yet
+            }
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, 500);
+        }
+        return false;
+    }
+
+    /**
+     * Runs one page and parses the response while it streams in
+     */
+    PageResult run(String page) {
+        long start = System.nanoTime();
+        try {
+            HttpURLConnection conn = open("/" + page + "?test&format=xml", Duration.ofMinutes(10));
+            int status = conn.getResponseCode();
+            if (status != 200) {
+                return PageResult.failed(page, elapsed(start), "HTTP " + status);
+            }
+            FitNesseResults.Report report;
+            try (InputStream in = conn.getInputStream()) {
+                report = FitNesseResults.parse(in);
+            }
+            if (report.pages().isEmpty()) {
+                return PageResult.failed(page, elapsed(start), "no results in response");
+            }
+            // A single page reports its name relative to itself; keep the full path instead
+            List<FitNesseResults.Page> pages = report.pages().size() == 1
+                    ? List.of(report.pages().get(0).named(page))
+                    : report.pages();
+            boolean passed = report.passed();
+            return new PageResult(page, passed, elapsed(start),
+                    passed ? null : report.assertions().toString(), pages, false);
+        } catch (IOException | XMLStreamException e) {
+            return PageResult.failed(page, elapsed(start), e.getMessage());
+        }
+    }
+
+    private HttpURLConnection open(String path, Duration readTimeout) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        conn.setRequestMethod("GET");
+        conn.setConnectTimeout(1000);
+        conn.setReadTimeout((int) readTimeout.toMillis());
+        return conn;
+    }
+
+    private static long elapsed(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Override
+    public void close() {
+        if (process != null) {
+            process.destroy();
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    record PageResult(String page, boolean passed, long millis, String error,
+                      List<FitNesseResults.Page> pages, boolean cached) {
+
+        /**
+         * The page could not be run at all; reported as one page with an exception
+         */
+        static PageResult failed(String page, long millis, String error) {
+            FitNesseResults.Page failed = new FitNesseResults.Page(page, new FitNesseResults.Counts(0, 0, 0, 1),
+                    millis, Map.of(), List.of(page + ": " + error));
+            return new PageResult(page, false, millis, error, List.of(failed), false);
+        }
+
+        /**
+         * Result taken from the cache; its JUnit XML already exists
+         */
+        static PageResult cached(String page, boolean passed, long millis, String error) {
+            return new PageResult(page, passed, millis, error, List.of(), true);
+        }
+
+        /**
+         * {@code true} if FitNesse actually ran the tables, whatever the outcome
+         */
+        boolean executed() {
+            return !cached && pages.stream().anyMatch(p -> !p.tables().isEmpty());
+        }
+    }
+}
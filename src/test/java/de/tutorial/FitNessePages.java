@@ -0,0 +1,112 @@
+package de.tutorial;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Finds the test pages of a FitNesse wiki and their recorded run times.
+ *
+ * A page counts as a test if its properties.xml carries a {@code <Test>} flag, or - without
+ * properties.xml - if its name starts or ends with "Test" (FitNesse's own default).
+ * The bundled FitNesse documentation and acceptance suites are skipped.
+ */
+final class FitNessePages {
+
+    private static final Set<String> SKIPPED = Set.of("FitNesse", "files", "TemplateLibrary", "ErrorLogs");
+    private static final Set<String> SPECIAL_PAGES = Set.of("SetUp", "TearDown", "SuiteSetUp", "SuiteTearDown");
+    private static final Pattern TEST_FLAG = Pattern.compile("<Test\\s*(/>|>\\s*true\\s*</Test>)");
+
+    // Average over the latest runs so a single slow run (cold JVM) does not skew the plan
+    private static final int HISTORY_RUNS = 3;
+
+    private final Path root;
+
+    FitNessePages(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Full page paths (e.g. "PriceCalculations" or "Suite.SubPage"), sorted by name
+     */
+    List<String> discoverTests() {
+        List<String> pages = new ArrayList<>();
+        collect(root, "", pages);
+        pages.sort(Comparator.naturalOrder());
+        return pages;
+    }
+
+    private void collect(Path dir, String prefix, List<String> pages) {
+        try (Stream<Path> children = Files.list(dir)) {
+            for (Path child : children.filter(Files::isDirectory).sorted().toList()) {
+                String name = child.getFileName().toString();
+                if (SKIPPED.contains(name) || !Files.exists(child.resolve("content.txt"))) {
+                    continue;
+                }
+                String page = prefix.isEmpty() ? name : prefix + "." + name;
+                if (isTest(child, name)) {
+                    pages.add(page);
+                }
+                collect(child, page, pages);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isTest(Path dir, String name) throws IOException {
+        if (SPECIAL_PAGES.contains(name)) {
+            return false;
+        }
+        Path properties = dir.resolve("properties.xml");
+        if (Files.exists(properties)) {
+            return TEST_FLAG.matcher(Files.readString(properties)).find();
+        }
+        return name.startsWith("Test") || name.endsWith("Test");
+    }
+
+    /**
+     * Average run time of the latest recorded runs, read from files/testResults/&lt;page&gt;
+     */
+    OptionalLong recordedMillis(String page) {
+        Path history = root.resolve("files").resolve("testResults").resolve(page);
+        if (!Files.isDirectory(history)) {
+            return OptionalLong.empty();
+        }
+        // File names start with a timestamp (yyyyMMddHHmmss), so name order is run order
+        try (Stream<Path> runs = Files.list(history)) {
+            return runs.filter(p -> p.getFileName().toString().endsWith(".xml"))
+                    .sorted(Comparator.comparing((Path p) -> p.getFileName().toString()).reversed())
+                    .limit(HISTORY_RUNS)
+                    .map(FitNessePages::runTime)
+                    .filter(OptionalLong::isPresent)
+                    .mapToLong(OptionalLong::getAsLong)
+                    .average()
+                    .stream()
+                    .mapToLong(Math::round)
+                    .findFirst();
+        } catch (IOException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    private static OptionalLong runTime(Path result) {
+        try (InputStream in = Files.newInputStream(result)) {
+            // The total includes test system startup, which is what a shard actually pays
+            long millis = FitNesseResults.parse(in).runTimeMillis();
+            return millis > 0 ? OptionalLong.of(millis) : OptionalLong.empty();
+        } catch (IOException | XMLStreamException e) {
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package de.tutorial;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Last result per FitNesse page, keyed by its {@link PageFingerprint}.
+ *
+ * Stores pass/fail, run time and the page's JUnit XML, so a cached page is reported exactly like
+ * a page that just ran. Pages that could not run at all (server or Slim problems) are not stored:
+ * those say nothing about the page and must be retried.
+ */
+final class FitNesseResultCache {
+
+    private static final String INDEX = "index.properties";
+
+    private final Path directory;
+    private final Properties index = new Properties();
+
+    FitNesseResultCache(Path directory) {
+        this.directory = directory;
+        Path file = directory.resolve(INDEX);
+        if (Files.exists(file)) {
+            try (Reader in = Files.newBufferedReader(file)) {
+                index.load(in);
+            } catch (IOException e) {
+                // Unreadable cache: start from scratch
+                index.clear();
+            }
+        }
+    }
+
+    /**
+     * Cached result if the page was last run with the same fingerprint; restores its JUnit XML
+     */
+    synchronized Optional<FitNesseInstance.PageResult> lookup(String page, String fingerprint, Path junitDir) {
+        if (!fingerprint.equals(index.getProperty(page + ".key"))) {
+            return Optional.empty();
+        }
+        Path junit = directory.resolve(junitFile(page));
+        if (!Files.exists(junit)) {
+            return Optional.empty();
+        }
+        try {
+            Files.createDirectories(junitDir);
+            Files.copy(junit, junitDir.resolve(junitFile(page)), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        return Optional.of(FitNesseInstance.PageResult.cached(page,
+                Boolean.parseBoolean(index.getProperty(page + ".passed")),
+                Long.parseLong(index.getProperty(page + ".millis", "0")),
+                index.getProperty(page + ".error")));
+    }
+
+    synchronized void store(String page, String fingerprint, FitNesseInstance.PageResult result, Path junitDir) {
+        if (!result.executed()) {
+            index.remove(page + ".key");
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.copy(junitDir.resolve(junitFile(page)), directory.resolve(junitFile(page)),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            index.remove(page + ".key");
+            return;
+        }
+        index.setProperty(page + ".key", fingerprint);
+        index.setProperty(page + ".passed", String.valueOf(result.passed()));
+        index.setProperty(page + ".millis", String.valueOf(result.millis()));
+        if (result.error() != null) {
+            index.setProperty(page + ".error", result.error());
+        } else {
+            index.remove(page + ".error");
+        }
+    }
+
+    synchronized void save() {
+        try {
+            Files.createDirectories(directory);
+            try (Writer out = Files.newBufferedWriter(directory.resolve(INDEX))) {
+                index.store(out, "FitNesse result cache - delete or run with -Dorchestrator.force=true to rerun all");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String junitFile(String page) {
+        return JUnitXmlReport.fileName(page);
+    }
+}
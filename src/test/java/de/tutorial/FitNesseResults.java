@@ -0,0 +1,231 @@
+package de.tutorial;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming (StAX) parser for FitNesse's {@code format=xml} test results and the history files
+ * in files/testResults, which share the same format.
+ *
+ * Only small leaf elements are read; the rendered page ({@code <content>}) and the execution log
+ * are skipped token by token, so memory stays flat no matter how large a suite's output is.
+ * FitNesse records no per-table timings, so tables carry counts only; run times are per page.
+ */
+final class FitNesseResults {
+
+    // Keep failure details readable in the console and in JUnit XML
+    private static final int MAX_FAILURES_PER_PAGE = 20;
+    private static final int MAX_MESSAGE_LENGTH = 300;
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, false);
+    }
+
+    private FitNesseResults() {
+    }
+
+    static Report parse(InputStream in) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        try {
+            return new Parser(reader).parse();
+        } finally {
+            reader.close();
+        }
+    }
+
+    record Counts(int right, int wrong, int ignores, int exceptions) {
+
+        static final Counts NONE = new Counts(0, 0, 0, 0);
+
+        boolean passed() {
+            return right > 0 && wrong == 0 && exceptions == 0;
+        }
+
+        Counts plus(Counts other) {
+            return new Counts(right + other.right, wrong + other.wrong,
+                    ignores + other.ignores, exceptions + other.exceptions);
+        }
+
+        @Override
+        public String toString() {
+            return right + " right, " + wrong + " wrong, " + ignores + " ignored, " + exceptions + " exceptions";
+        }
+    }
+
+    /**
+     * One executed page: assertion counts, run time, counts per table (by instruction id prefix,
+     * e.g. "decisionTable_1") and the first failing expectations
+     */
+    record Page(String name, Counts counts, long runTimeMillis, Map<String, Counts> tables, List<String> failures) {
+
+        Page named(String newName) {
+            return new Page(newName, counts, runTimeMillis, tables, failures);
+        }
+    }
+
+    /**
+     * A whole response; {@code finalCounts} counts pages, not assertions
+     */
+    record Report(List<Page> pages, Counts finalCounts, long totalRunTimeMillis) {
+
+        Counts assertions() {
+            return pages.stream().map(Page::counts).reduce(Counts.NONE, Counts::plus);
+        }
+
+        boolean passed() {
+            return !pages.isEmpty() && pages.stream().allMatch(p -> p.counts().passed());
+        }
+
+        /**
+         * Total run time including test system startup, or the sum of the page times
+         */
+        long runTimeMillis() {
+            return totalRunTimeMillis > 0
+                    ? totalRunTimeMillis
+                    : pages.stream().mapToLong(Page::runTimeMillis).sum();
+        }
+    }
+
+    private static final class Parser {
+
+        private final XMLStreamReader reader;
+        private final List<Page> pages = new ArrayList<>();
+        private Counts finalCounts = Counts.NONE;
+        private long totalRunTime;
+
+        // State of the <result> currently being read
+        private String pageName;
+        private Counts pageCounts;
+        private long pageRunTime;
+        private Map<String, Counts> tables;
+        private List<String> failures;
+
+        // State of the <expectation> currently being read
+        private String status;
+        private String instructionId;
+        private String message;
+
+        Parser(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        Report parse() throws XMLStreamException {
+            String rootPath = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "rootPath" -> rootPath = reader.getElementText().trim();
+                        case "result" -> startPage(rootPath);
+                        case "relativePageName" -> pageName = reader.getElementText().trim();
+                        case "counts" -> pageCounts = readCounts();
+                        case "runTimeInMillis" -> pageRunTime = readLong();
+                        case "expectation" -> status = instructionId = message = null;
+                        case "status" -> status = reader.getElementText().trim();
+                        case "instructionId" -> instructionId = reader.getElementText().trim();
+                        case "evaluationMessage" -> message = truncate(reader.getElementText());
+                        case "finalCounts" -> finalCounts = readCounts();
+                        case "totalRunTimeInMillis" -> totalRunTime = readLong();
+                        default -> {
+                            // everything else, including <content>, is skipped unread
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "expectation" -> endExpectation();
+                        case "result" -> endPage();
+                        default -> {
+                        }
+                    }
+                }
+            }
+            return new Report(List.copyOf(pages), finalCounts, totalRunTime);
+        }
+
+        private void startPage(String rootPath) {
+            pageName = rootPath;
+            pageCounts = Counts.NONE;
+            pageRunTime = 0;
+            tables = new LinkedHashMap<>();
+            failures = new ArrayList<>();
+        }
+
+        private void endExpectation() {
+            if (status == null || instructionId == null || tables == null) {
+                return;
+            }
+            int split = instructionId.lastIndexOf('_');
+            String table = split > 0 ? instructionId.substring(0, split) : instructionId;
+            Counts delta = switch (status) {
+                case "pass" -> new Counts(1, 0, 0, 0);
+                case "fail" -> new Counts(0, 1, 0, 0);
+                case "error" -> new Counts(0, 0, 0, 1);
+                case "ignore" -> new Counts(0, 0, 1, 0);
+                default -> Counts.NONE;
+            };
+            tables.merge(table, delta, Counts::plus);
+            if ((delta.wrong() > 0 || delta.exceptions() > 0) && failures.size() < MAX_FAILURES_PER_PAGE) {
+                failures.add(instructionId + ": " + status + (message != null ? " - " + message : ""));
+            }
+        }
+
+        private void endPage() {
+            if (tables == null) {
+                return;
+            }
+            pages.add(new Page(pageName, pageCounts, pageRunTime, Map.copyOf(tables), List.copyOf(failures)));
+            tables = null;
+            failures = null;
+        }
+
+        private Counts readCounts() throws XMLStreamException {
+            int right = 0;
+            int wrong = 0;
+            int ignores = 0;
+            int exceptions = 0;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                int value = (int) readLong();
+                switch (name) {
+                    case "right" -> right = value;
+                    case "wrong" -> wrong = value;
+                    case "ignores" -> ignores = value;
+                    case "exceptions" -> exceptions = value;
+                    default -> {
+                    }
+                }
+            }
+            return new Counts(right, wrong, ignores, exceptions);
+        }
+
+        private long readLong() throws XMLStreamException {
+            String text = reader.getElementText().trim();
+            try {
+                return text.isEmpty() ? 0 : Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        // First line only: Slim appends e.g. the fixture's whole method list to "No Method" errors
+        private static String truncate(String text) {
+            String trimmed = text.strip();
+            int newline = trimmed.indexOf('\n');
+            if (newline > 0) {
+                trimmed = trimmed.substring(0, newline).strip();
+            }
+            return trimmed.length() <= MAX_MESSAGE_LENGTH ? trimmed : trimmed.substring(0, MAX_MESSAGE_LENGTH) + "...";
+        }
+    }
+}
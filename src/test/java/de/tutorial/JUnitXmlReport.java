@@ -0,0 +1,116 @@
+package de.tutorial;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes FitNesse page results as JUnit XML (one TEST-*.xml per page, one test case per table),
+ * next to Gradle's own results so CI and report tools pick both up the same way.
+ */
+final class JUnitXmlReport {
+
+    private static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+
+    private final Path directory;
+
+    JUnitXmlReport(Path directory) {
+        this.directory = directory;
+    }
+
+    Path write(FitNesseResults.Page page) throws IOException {
+        Files.createDirectories(directory);
+        String suiteName = "FitNesse." + page.name();
+        Path file = directory.resolve(fileName(page.name()));
+        // Sorted so repeated runs produce comparable files
+        Map<String, FitNesseResults.Counts> tables = new TreeMap<>(page.tables());
+        if (tables.isEmpty()) {
+            // Page did not get as far as its tables (no test system, HTTP error): report the page itself
+            tables.put(page.name(), page.counts());
+        }
+
+        int failures = 0;
+        int errors = 0;
+        int skipped = 0;
+        for (FitNesseResults.Counts counts : tables.values()) {
+            if (counts.exceptions() > 0) {
+                errors++;
+            } else if (counts.wrong() > 0) {
+                failures++;
+            } else if (counts.right() == 0) {
+                skipped++;
+            }
+        }
+
+        try (OutputStream out = Files.newOutputStream(file)) {
+            XMLStreamWriter xml = FACTORY.createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("testsuite");
+            xml.writeAttribute("name", suiteName);
+            xml.writeAttribute("tests", String.valueOf(tables.size()));
+            xml.writeAttribute("skipped", String.valueOf(skipped));
+            xml.writeAttribute("failures", String.valueOf(failures));
+            xml.writeAttribute("errors", String.valueOf(errors));
+            xml.writeAttribute("timestamp", LocalDateTime.now().withNano(0).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            xml.writeAttribute("hostname", "localhost");
+            xml.writeAttribute("time", seconds(page.runTimeMillis()));
+
+            for (Map.Entry<String, FitNesseResults.Counts> table : tables.entrySet()) {
+                FitNesseResults.Counts counts = table.getValue();
+                xml.writeStartElement("testcase");
+                xml.writeAttribute("name", table.getKey());
+                xml.writeAttribute("classname", suiteName);
+                // FitNesse only times whole pages
+                xml.writeAttribute("time", "0");
+                if (counts.exceptions() > 0) {
+                    writeProblem(xml, "error", counts, page, table.getKey());
+                } else if (counts.wrong() > 0) {
+                    writeProblem(xml, "failure", counts, page, table.getKey());
+                } else if (counts.right() == 0) {
+                    xml.writeEmptyElement("skipped");
+                }
+                xml.writeEndElement();
+            }
+
+            xml.writeStartElement("system-out");
+            xml.writeCData(page.counts().toString());
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write " + file, e);
+        }
+        return file;
+    }
+
+    static String fileName(String page) {
+        return "TEST-FitNesse." + page + ".xml";
+    }
+
+    private static void writeProblem(XMLStreamWriter xml, String element, FitNesseResults.Counts counts,
+                                     FitNesseResults.Page page, String table) throws XMLStreamException {
+        xml.writeStartElement(element);
+        xml.writeAttribute("message", counts.toString());
+        xml.writeAttribute("type", "fitnesse." + element);
+        for (String failure : page.failures()) {
+            if (failure.startsWith(table + "_") || table.equals(page.name())) {
+                xml.writeCharacters(failure + "\n");
+            }
+        }
+        xml.writeEndElement();
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+}
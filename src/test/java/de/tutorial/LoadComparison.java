@@ -0,0 +1,133 @@
+package de.tutorial;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lastgenerator für den Vergleich Platform- vs. Virtual-Thread-Modus des Servers.
+ *
+ * Schickt für jede Stufe so viele gleichzeitige Clients wie angegeben eine feste Zeit lang
+ * gegen einen Endpunkt und schreibt Durchsatz, Latenzen und Fehler als CSV.
+ * Aufruf über {@code load-compare.sh} oder {@code ./gradlew loadTest -PloadLabel=platform}.
+ *
+ * Argumente: baseUrl label [path] [sekundenProStufe] [stufen, z.B. 50,100,200]
+ */
+public class LoadComparison {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String label = args.length > 1 ? args[1] : "server";
+        String path = args.length > 2 ? args[2] : "/api/books?limit=50";
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 15;
+        int[] levels = args.length > 4
+                ? Arrays.stream(args[4].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{50, 100, 200, 400, 800, 1600};
+
+        Path report = Path.of("build", "reports", "load", label + ".csv");
+        Files.createDirectories(report.getParent());
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        URI uri = URI.create(baseUrl + path);
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(report))) {
+            out.println("mode,concurrency,requests,errors,throughput_per_s,p50_ms,p95_ms,p99_ms,max_ms");
+            System.out.printf("%-10s %6s %9s %7s %10s %8s %8s %8s%n",
+                    "mode", "clients", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+
+            // Kurzes Aufwärmen, damit JIT und Connection-Pool nicht die erste Stufe verfälschen
+            run(client, uri, levels[0], Duration.ofSeconds(Math.min(5, seconds)));
+
+            for (int concurrency : levels) {
+                Result result = run(client, uri, concurrency, Duration.ofSeconds(seconds));
+                out.printf("%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f%n", label, concurrency, result.requests(),
+                        result.errors(), result.throughput(), result.percentile(50), result.percentile(95),
+                        result.percentile(99), result.percentile(100));
+                System.out.printf("%-10s %6d %9d %7d %10.1f %8.2f %8.2f %8.2f%n", label, concurrency,
+                        result.requests(), result.errors(), result.throughput(), result.percentile(50),
+                        result.percentile(99), result.percentile(100));
+            }
+        }
+        System.out.println("Ergebnis: " + report.toAbsolutePath());
+    }
+
+    private static Result run(HttpClient client, URI uri, int concurrency, Duration duration) throws Exception {
+        // Der Client darf nicht selbst zum Engpass werden: auf Java 21+ ein Virtual Thread pro Client
+        ExecutorService clients = VirtualThreads.newPerTaskExecutor()
+                .orElseGet(() -> Executors.newFixedThreadPool(concurrency));
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        List<Future<long[]>> futures = new ArrayList<>(concurrency);
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < end) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - sent;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            List<long[]> all = new ArrayList<>(concurrency);
+            for (Future<long[]> future : futures) {
+                all.add(future.get());
+            }
+            long elapsed = System.nanoTime() - start;
+            long[] latencies = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(latencies, errors.get(), elapsed);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private record Result(long[] sortedLatencies, long errors, long elapsedNanos) {
+
+        long requests() {
+            return sortedLatencies.length;
+        }
+
+        double throughput() {
+            return requests() / (elapsedNanos / 1e9);
+        }
+
+        double percentile(int p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
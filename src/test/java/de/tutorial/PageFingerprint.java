@@ -0,0 +1,219 @@
+package de.tutorial;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content hash of everything a FitNesse page's result depends on:
+ * <ul>
+ *   <li>the page and its ancestors (inherited !define and !path), the closest inherited
+ *       SetUp/TearDown/SuiteSetUp/SuiteTearDown pages and every page pulled in with !include</li>
+ *   <li>the bytecode of the fixture classes named in those pages (or of whole packages listed in
+ *       import tables) plus every project class they reach, so a change in a service the fixture
+ *       calls counts as well</li>
+ *   <li>the main resources, the build files and the Java version</li>
+ * </ul>
+ * Equal fingerprints mean the page would run against exactly the same inputs.
+ */
+final class PageFingerprint {
+
+    private static final List<String> INHERITED_PAGES = List.of("SetUp", "TearDown", "SuiteSetUp", "SuiteTearDown");
+    private static final List<String> BUILD_FILES = List.of("build.gradle", "settings.gradle", "gradle.properties");
+
+    private static final Pattern INCLUDE = Pattern.compile("^!include(?:\\s+-\\w+)*\\s+([<>.]?[\\w.]+)", Pattern.MULTILINE);
+    private static final Pattern QUALIFIED_CLASS = Pattern.compile("\\b((?:[a-z][a-z0-9_]*\\.)+[A-Z][A-Za-z0-9_$]*)\\b");
+    private static final Pattern IMPORT_TABLE = Pattern.compile("^!?\\|\\s*[Ii]mport\\s*\\|\\s*$");
+    private static final Pattern IMPORT_ROW = Pattern.compile("^\\|\\s*([a-z][\\w.]*)\\s*\\|\\s*$");
+
+    private final Path wikiRoot;
+    private final Path projectDir;
+    private final ClassDependencies classes;
+    private byte[] environment;
+
+    PageFingerprint(Path wikiRoot, Path projectDir, List<Path> classDirectories) {
+        this.wikiRoot = wikiRoot;
+        this.projectDir = projectDir;
+        this.classes = new ClassDependencies(classDirectories);
+    }
+
+    /**
+     * Directories on the current class path, i.e. the project's own compiled classes and resources
+     */
+    static List<Path> classDirectoriesOnClassPath() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .map(Path::of)
+                .filter(Files::isDirectory)
+                .toList();
+    }
+
+    String of(String page) {
+        MessageDigest digest = sha256();
+        Set<String> fixtureClasses = new TreeSet<>();
+
+        // Wiki sources, sorted by path so the order of discovery does not matter
+        Map<String, byte[]> sources = new TreeMap<>();
+        Deque<Path> pending = new ArrayDeque<>(pageAndInherited(page));
+        while (!pending.isEmpty()) {
+            Path dir = pending.pop();
+            String key = wikiRoot.relativize(dir).toString();
+            if (sources.containsKey(key)) {
+                continue;
+            }
+            String content = read(dir.resolve("content.txt"));
+            sources.put(key, (content + "\u0000" + read(dir.resolve("properties.xml"))).getBytes(StandardCharsets.UTF_8));
+            Matcher include = INCLUDE.matcher(content);
+            while (include.find()) {
+                Path included = resolve(dir, include.group(1));
+                if (included != null) {
+                    pending.push(included);
+                }
+            }
+            fixtureClasses.addAll(referencedClasses(content));
+        }
+        sources.forEach((path, bytes) -> update(digest, "page:" + path, bytes));
+
+        classes.closure(fixtureClasses).forEach((name, bytes) -> update(digest, "class:" + name, bytes));
+        update(digest, "environment", environment());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * The page, its ancestors up to the root and the closest inherited special pages
+     */
+    private List<Path> pageAndInherited(String page) {
+        List<Path> dirs = new ArrayList<>();
+        Path dir = pageDir(page);
+        dirs.add(dir);
+        Set<String> found = new LinkedHashSet<>();
+        for (Path level = dir; level != null && level.startsWith(wikiRoot); level = level.getParent()) {
+            if (!level.equals(dir)) {
+                dirs.add(level);
+            }
+            for (String name : INHERITED_PAGES) {
+                Path special = level.resolve(name);
+                if (!found.contains(name) && Files.exists(special.resolve("content.txt"))) {
+                    found.add(name);
+                    dirs.add(special);
+                }
+            }
+        }
+        return dirs;
+    }
+
+    /**
+     * Wiki references as in FitNesse: ".A.B" from the root, ">A" below the current page,
+     * "<A" and plain "A.B" searched from the current level upwards
+     */
+    private Path resolve(Path from, String reference) {
+        if (reference.startsWith(".")) {
+            return existing(pageDir(reference.substring(1)));
+        }
+        if (reference.startsWith(">")) {
+            return existing(from.resolve(reference.substring(1).replace('.', '/')));
+        }
+        String relative = (reference.startsWith("<") ? reference.substring(1) : reference).replace('.', '/');
+        for (Path level = from.getParent(); level != null && level.startsWith(wikiRoot); level = level.getParent()) {
+            Path candidate = existing(level.resolve(relative));
+            if (candidate != null) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private Set<String> referencedClasses(String content) {
+        Set<String> names = new TreeSet<>();
+        Matcher qualified = QUALIFIED_CLASS.matcher(content);
+        while (qualified.find()) {
+            names.add(qualified.group(1));
+        }
+        boolean inImport = false;
+        for (String line : content.split("\\R")) {
+            if (IMPORT_TABLE.matcher(line).matches()) {
+                inImport = true;
+                continue;
+            }
+            Matcher row = inImport ? IMPORT_ROW.matcher(line) : null;
+            if (row != null && row.matches()) {
+                names.addAll(classes.classesInPackage(row.group(1)));
+            } else {
+                inImport = false;
+            }
+        }
+        return names;
+    }
+
+    private byte[] environment() {
+        if (environment == null) {
+            MessageDigest digest = sha256();
+            update(digest, "java", System.getProperty("java.version").getBytes(StandardCharsets.UTF_8));
+            for (String file : BUILD_FILES) {
+                update(digest, file, read(projectDir.resolve(file)).getBytes(StandardCharsets.UTF_8));
+            }
+            Path resources = projectDir.resolve("src/main/resources");
+            if (Files.isDirectory(resources)) {
+                try (Stream<Path> files = Files.walk(resources)) {
+                    for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                        update(digest, resources.relativize(file).toString(), Files.readAllBytes(file));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            environment = digest.digest();
+        }
+        return environment;
+    }
+
+    private Path pageDir(String page) {
+        return wikiRoot.resolve(page.replace('.', '/'));
+    }
+
+    private static Path existing(Path dir) {
+        return Files.exists(dir.resolve("content.txt")) ? dir : null;
+    }
+
+    private static String read(Path file) {
+        try {
+            return Files.exists(file) ? Files.readString(file) : "";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String label, byte[] bytes) {
+        digest.update(label.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
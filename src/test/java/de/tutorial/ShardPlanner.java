@@ -0,0 +1,66 @@
+package de.tutorial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Distributes test pages over a fixed number of shards so that all shards finish at about
+ * the same time: longest page first, each onto the shard with the smallest total so far (LPT).
+ */
+final class ShardPlanner {
+
+    private ShardPlanner() {
+    }
+
+    static List<Shard> plan(Map<String, Long> millisByPage, int shardCount) {
+        int count = Math.max(1, Math.min(shardCount, millisByPage.size()));
+        PriorityQueue<Shard> byLoad = new PriorityQueue<>(
+                Comparator.comparingLong(Shard::estimatedMillis).thenComparingInt(Shard::index));
+        List<Shard> shards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Shard shard = new Shard(i);
+            shards.add(shard);
+            byLoad.add(shard);
+        }
+
+        millisByPage.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(page -> {
+                    Shard lightest = byLoad.poll();
+                    lightest.add(page.getKey(), page.getValue());
+                    byLoad.add(lightest);
+                });
+        return shards;
+    }
+
+    static final class Shard {
+        private final int index;
+        private final List<String> pages = new ArrayList<>();
+        private long estimatedMillis;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        void add(String page, long millis) {
+            pages.add(page);
+            estimatedMillis += millis;
+        }
+
+        int index() {
+            return index;
+        }
+
+        List<String> pages() {
+            return pages;
+        }
+
+        long estimatedMillis() {
+            return estimatedMillis;
+        }
+    }
+}
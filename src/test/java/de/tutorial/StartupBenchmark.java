@@ -0,0 +1,95 @@
+package de.tutorial;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startzeit der Anwendung ohne und mit Schnellstart (CDS-Archiv, Spring AOT).
+ *
+ * Startet die entpackte Anwendung je Variante mehrfach in einer eigenen JVM, die sich direkt nach dem
+ * Refresh des Contexts beendet ({@code spring.context.exit=onRefresh}), und misst die Zeit bis zum
+ * Prozessende. Der erste Lauf je Variante wird verworfen, damit der Dateisystem-Cache nicht mitmisst.
+ * Ergebnis als CSV in build/reports/startup/startup.csv.
+ * Aufruf über {@code ./gradlew startupBenchmark -PfastStart}.
+ *
+ * Argumente: java appJar cdsArchiv [läufeProVariante]
+ */
+public class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "de.tutorial.bookstore.BookstoreApplication";
+    private static final int TIMEOUT_SECONDS = 120;
+
+    public static void main(String[] args) throws Exception {
+        String java = args[0];
+        String appJar = args[1];
+        String cdsArchive = args[2];
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        List<Variant> variants = List.of(
+                new Variant("kalt", List.of()),
+                new Variant("aot", List.of("-Dspring.aot.enabled=true")),
+                new Variant("cds", List.of("-XX:SharedArchiveFile=" + cdsArchive)),
+                new Variant("cds+aot", List.of("-XX:SharedArchiveFile=" + cdsArchive, "-Dspring.aot.enabled=true")));
+
+        Path report = Path.of("build", "reports", "startup", "startup.csv");
+        Files.createDirectories(report.getParent());
+
+        double coldMedian = 0;
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(report))) {
+            out.println("variant,runs,min_ms,median_ms,max_ms");
+            System.out.printf("%-8s %6s %8s %8s %8s %9s%n", "Variante", "Läufe", "min ms", "median", "max ms", "vs. kalt");
+
+            for (Variant variant : variants) {
+                start(java, appJar, variant); // verworfen
+                long[] millis = new long[runs];
+                for (int i = 0; i < runs; i++) {
+                    millis[i] = start(java, appJar, variant);
+                }
+                Arrays.sort(millis);
+                double median = runs % 2 == 1 ? millis[runs / 2] : (millis[runs / 2 - 1] + millis[runs / 2]) / 2.0;
+                if (variant.name().equals("kalt")) {
+                    coldMedian = median;
+                }
+                out.printf("%s,%d,%d,%.0f,%d%n", variant.name(), runs, millis[0], median, millis[runs - 1]);
+                System.out.printf("%-8s %6d %8d %8.0f %8d %8.0f%%%n", variant.name(), runs, millis[0], median,
+                        millis[runs - 1], (median - coldMedian) / coldMedian * 100);
+            }
+        }
+        System.out.println("Ergebnis: " + report.toAbsolutePath());
+    }
+
+    private static long start(String java, String appJar, Variant variant) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(variant.jvmArgs());
+        command.add("-Dspring.context.exit=onRefresh");
+        // Wie beim Trainingslauf -cp statt -jar: das CDS-Archiv prüft den Klassenpfad
+        command.add("-cp");
+        command.add(appJar);
+        command.add(MAIN_CLASS);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Start dauerte länger als " + TIMEOUT_SECONDS + " s: " + command);
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException("Start fehlgeschlagen (Exit " + process.exitValue() + "): " + command);
+        }
+        return millis;
+    }
+
+    private record Variant(String name, List<String> jvmArgs) {
+    }
+}
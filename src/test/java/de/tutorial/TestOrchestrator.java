@@ -1,21 +1,40 @@
 package de.tutorial;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.concurrent.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Test Orchestrator - Coordinates FitNesse and Spock tests
  */
 public class TestOrchestrator {
     
-    private static final String FITNESSE_URL = "http://localhost:9090";
+    private static final String WIKI_DIR = "src/test/fitnesse";
     private static final int FITNESSE_PORT = 9090;
-    private Process fitnesseProcess;
-    private ExecutorService executor = Executors.newFixedThreadPool(4);
+    private static final int SLIM_PORT = 8085;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+    // Pages without recorded history are assumed to take this long
+    private static final long DEFAULT_PAGE_MILLIS = 2000;
+    private static final int SHARDS = Integer.getInteger("orchestrator.shards",
+        Runtime.getRuntime().availableProcessors());
+    private static final int PLATFORM_THREADS = Math.max(4, SHARDS + 1);
+    // -Dorchestrator.force=true reruns every page, -Dorchestrator.fitnesseOnly=true skips Spock and reports
+    private static final boolean FORCE = Boolean.getBoolean("orchestrator.force");
+    private static final boolean FITNESSE_ONLY = Boolean.getBoolean("orchestrator.fitnesseOnly");
+    private final List<FitNesseInstance> fitnesseInstances = new ArrayList<>();
+    // Next to build/test-results/test, so CI collects Spock and FitNesse results together
+    private static final Path JUNIT_DIR = Path.of("build", "test-results", "fitnesse");
+    private final JUnitXmlReport junitReport = new JUnitXmlReport(JUNIT_DIR);
+    private final FitNesseResultCache resultCache = new FitNesseResultCache(Path.of("build", "fitnesse-cache"));
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final List<FitNesseInstance.PageResult> cachedResults = new ArrayList<>();
+    private ExecutorService executor = createExecutor();
     
     public static void main(String[] args) {
         TestOrchestrator orchestrator = new TestOrchestrator();
@@ -26,57 +45,81 @@ public class TestOrchestrator {
         System.out.println("=== Test Orchestrator Started ===");
         
         try {
-            // 1. Compile project
-            System.out.println("\n1. Compiling project...");
-            executeCommand("./gradlew", "clean", "compileJava", "compileTestJava");
+            // 1. Compile project (skipped when started by the Gradle task, which compiles first)
+            if (!Boolean.getBoolean("orchestrator.skipBuild")) {
+                System.out.println("\n1. Compiling project...");
+                executeCommand("./gradlew", "clean", "compileJava", "compileTestJava");
+            }
             
             // 2. Run Spock tests in parallel
-            System.out.println("\n2. Running Spock tests...");
-            CompletableFuture<Boolean> spockTests = CompletableFuture.supplyAsync(() -> 
-                runSpockTests()
-            );
-            
-            // 3. Start FitNesse server
-            System.out.println("\n3. Starting FitNesse server...");
-            startFitNesseServer();
-            Thread.sleep(5000); // Wait for server startup
-            
-            // 4. Run FitNesse tests
-            System.out.println("\n4. Running FitNesse tests...");
-            List<CompletableFuture<TestResult>> fitnesseTests = new ArrayList<>();
+            CompletableFuture<Boolean> spockTests = CompletableFuture.completedFuture(null);
+            if (!FITNESSE_ONLY) {
+                System.out.println("\n2. Running Spock tests...");
+                spockTests = CompletableFuture.supplyAsync(() ->
+                    runSpockTests(), executor
+                );
+            }
             
-            fitnesseTests.add(CompletableFuture.supplyAsync(() -> 
-                runFitNesseTest("DemoTest", "Demo functionality test")
-            ));
+            // 3. Plan shards for the pages whose inputs changed since their cached result
+            System.out.println("\n3. Planning FitNesse shards...");
+            List<ShardPlanner.Shard> shards = planShards();
             
-            fitnesseTests.add(CompletableFuture.supplyAsync(() -> 
-                runFitNesseTest("PriceCalculations", "Price calculation test")
-            ));
+            // 4. Start one FitNesse server per shard and wait until each answers
+            if (!shards.isEmpty()) {
+                System.out.println("\n4. Starting " + shards.size() + " FitNesse server(s)...");
+                startFitNesseServers(shards.size());
+            }
             
-            fitnesseTests.add(CompletableFuture.supplyAsync(() -> 
-                runFitNesseTest("ShippingCosts", "Shipping cost test")
-            ));
+            // 5. Run FitNesse shards in parallel, pages within a shard one after another
+            System.out.println("\n5. Running FitNesse tests...");
+            List<CompletableFuture<List<FitNesseInstance.PageResult>>> fitnesseTests = new ArrayList<>();
+            for (ShardPlanner.Shard shard : shards) {
+                FitNesseInstance instance = fitnesseInstances.get(shard.index());
+                fitnesseTests.add(CompletableFuture.supplyAsync(() ->
+                    runShard(instance, shard), executor
+                ));
+            }
             
             // Wait for all tests to complete
             CompletableFuture.allOf(fitnesseTests.toArray(new CompletableFuture[0])).join();
-            boolean spockPassed = spockTests.get();
+            Boolean spockPassed = spockTests.get();
+            resultCache.save();
             
-            // 5. Generate reports
-            System.out.println("\n5. Generating test reports...");
-            generateReports();
+            // 6. Generate reports
+            if (!FITNESSE_ONLY) {
+                System.out.println("\n6. Generating test reports...");
+                generateReports();
+            }
             
-            // 6. Print summary
+            // 7. Print summary
             printTestSummary(spockPassed, fitnesseTests);
             
         } catch (Exception e) {
             System.err.println("Test orchestration failed: " + e.getMessage());
             e.printStackTrace();
         } finally {
-            stopFitNesseServer();
+            stopFitNesseServers();
             executor.shutdown();
         }
     }
     
+    /**
+     * Tasks mostly wait on processes and HTTP, so on Java 21+ each gets its own virtual thread
+     * instead of sharing a fixed pool. Use -Dorchestrator.threads=platform to switch back.
+     */
+    private static ExecutorService createExecutor() {
+        boolean platform = "platform".equalsIgnoreCase(System.getProperty("orchestrator.threads"));
+        if (!platform) {
+            Optional<ExecutorService> virtual = VirtualThreads.newPerTaskExecutor();
+            if (virtual.isPresent()) {
+                System.out.println("Executor: Virtual Threads");
+                return virtual.get();
+            }
+        }
+        System.out.println("Executor: " + PLATFORM_THREADS + " Platform Threads");
+        return Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+    
     private boolean runSpockTests() {
         try {
             Process process = new ProcessBuilder("./gradlew", "test")
@@ -99,44 +142,89 @@ public class TestOrchestrator {
         }
     }
     
-    private void startFitNesseServer() throws IOException {
-        fitnesseProcess = new ProcessBuilder(
-            "./gradlew", "fitnesseStart"
-        ).start();
+    private List<ShardPlanner.Shard> planShards() {
+        Path wikiRoot = Path.of(WIKI_DIR, "FitNesseRoot");
+        FitNessePages wiki = new FitNessePages(wikiRoot);
+        PageFingerprint fingerprint = new PageFingerprint(wikiRoot, Path.of(""),
+            PageFingerprint.classDirectoriesOnClassPath());
+        List<String> pages = wiki.discoverTests();
+        if (pages.isEmpty()) {
+            throw new IllegalStateException("No FitNesse test pages found under " + WIKI_DIR);
+        }
+        
+        Map<String, Long> millisByPage = new LinkedHashMap<>();
+        for (String page : pages) {
+            String key = fingerprint.of(page);
+            fingerprints.put(page, key);
+            Optional<FitNesseInstance.PageResult> cached = FORCE
+                ? Optional.empty()
+                : resultCache.lookup(page, key, JUNIT_DIR);
+            if (cached.isPresent()) {
+                cachedResults.add(cached.get());
+            } else {
+                millisByPage.put(page, wiki.recordedMillis(page).orElse(DEFAULT_PAGE_MILLIS));
+            }
+        }
+        System.out.println("   " + cachedResults.size() + " of " + pages.size() + " page(s) unchanged, using cached results"
+            + (FORCE ? " (disabled by orchestrator.force)" : ""));
+        if (millisByPage.isEmpty()) {
+            return List.of();
+        }
+        
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(millisByPage, SHARDS);
+        for (ShardPlanner.Shard shard : shards) {
+            System.out.println("   Shard " + shard.index() + " (~" + shard.estimatedMillis() + " ms): "
+                + String.join(", ", shard.pages()));
+        }
+        return shards;
+    }
+    
+    /**
+     * Each instance gets its own HTTP port and a disjoint Slim port range. All are started
+     * first and then probed together, so the startup cost is paid once, not per instance.
+     */
+    private void startFitNesseServers(int count) throws IOException, InterruptedException {
+        String classpath = System.getProperty("java.class.path");
+        for (int i = 0; i < count; i++) {
+            FitNesseInstance instance = new FitNesseInstance(
+                FITNESSE_PORT + i, SLIM_PORT + i * FitNesseInstance.SLIM_POOL_SIZE);
+            fitnesseInstances.add(instance);
+            instance.start(WIKI_DIR, classpath, Path.of("build", "fitnesse", "instance-" + i + ".log"));
+        }
+        
+        long start = System.nanoTime();
+        for (FitNesseInstance instance : fitnesseInstances) {
+            long remaining = STARTUP_TIMEOUT.toNanos() - (System.nanoTime() - start);
+            if (!instance.awaitReady(Duration.ofNanos(Math.max(0, remaining)))) {
+                throw new IllegalStateException("FitNesse on port " + instance.port()
+                    + " did not become ready, see build/fitnesse/");
+            }
+        }
+        System.out.println("   Ready after " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+    
+    private void stopFitNesseServers() {
+        fitnesseInstances.forEach(FitNesseInstance::close);
     }
     
-    private void stopFitNesseServer() {
-        if (fitnesseProcess != null) {
-            fitnesseProcess.destroyForcibly();
+    private List<FitNesseInstance.PageResult> runShard(FitNesseInstance instance, ShardPlanner.Shard shard) {
+        List<FitNesseInstance.PageResult> results = new ArrayList<>();
+        for (String page : shard.pages()) {
+            FitNesseInstance.PageResult result = instance.run(page);
+            results.add(result);
+            writeJUnitXml(result);
+            resultCache.store(page, fingerprints.get(page), result, JUNIT_DIR);
         }
+        return results;
     }
     
-    private TestResult runFitNesseTest(String testName, String description) {
-        try {
-            URL url = new URL(FITNESSE_URL + "/" + testName + "?test&format=xml");
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(10000);
-            
-            int responseCode = conn.getResponseCode();
-            boolean passed = false;
-            
-            if (responseCode == 200) {
-                BufferedReader in = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream())
-                );
-                String content = in.lines().reduce("", (a, b) -> a + b);
-                in.close();
-                
-                // Simple check for test pass
-                passed = !content.contains("class=\"fail\"") && 
-                        content.contains("class=\"pass\"");
+    private void writeJUnitXml(FitNesseInstance.PageResult result) {
+        for (FitNesseResults.Page page : result.pages()) {
+            try {
+                junitReport.write(page);
+            } catch (IOException e) {
+                System.err.println("Could not write JUnit XML for " + page.name() + ": " + e.getMessage());
             }
-            
-            return new TestResult(testName, description, passed);
-            
-        } catch (Exception e) {
-            return new TestResult(testName, description, false, e.getMessage());
         }
     }
     
@@ -155,38 +243,31 @@ public class TestOrchestrator {
         }
     }
     
-    private void printTestSummary(boolean spockPassed, List<CompletableFuture<TestResult>> fitnesseTests) {
+    private void printTestSummary(Boolean spockPassed,
+                                  List<CompletableFuture<List<FitNesseInstance.PageResult>>> fitnesseTests) {
         System.out.println("\n=== Test Summary ===");
-        System.out.println("Spock Tests: " + (spockPassed ? "PASSED ✓" : "FAILED ✗"));
+        System.out.println("Spock Tests: " + (spockPassed == null ? "SKIPPED" : spockPassed ? "PASSED ✓" : "FAILED ✗"));
         
         System.out.println("\nFitNesse Tests:");
-        fitnesseTests.forEach(future -> {
+        for (int shard = 0; shard < fitnesseTests.size(); shard++) {
             try {
-                TestResult result = future.get();
-                System.out.println("  " + result.name + ": " + 
-                    (result.passed ? "PASSED ✓" : "FAILED ✗") +
-                    (result.error != null ? " (" + result.error + ")" : ""));
+                long shardMillis = 0;
+                for (FitNesseInstance.PageResult result : fitnesseTests.get(shard).get()) {
+                    shardMillis += result.millis();
+                    System.out.println("  " + result.page() + ": " +
+                        (result.passed() ? "PASSED ✓" : "FAILED ✗") +
+                        " [" + result.millis() + " ms]" +
+                        (result.error() != null ? " (" + result.error() + ")" : ""));
+                }
+                System.out.println("  -- shard " + shard + ": " + shardMillis + " ms");
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        });
-    }
-    
-    static class TestResult {
-        String name;
-        String description;
-        boolean passed;
-        String error;
-        
-        TestResult(String name, String description, boolean passed) {
-            this(name, description, passed, null);
         }
-        
-        TestResult(String name, String description, boolean passed, String error) {
-            this.name = name;
-            this.description = description;
-            this.passed = passed;
-            this.error = error;
+        for (FitNesseInstance.PageResult result : cachedResults) {
+            System.out.println("  " + result.page() + ": " +
+                (result.passed() ? "PASSED ✓" : "FAILED ✗") + " [cached]" +
+                (result.error() != null ? " (" + result.error() + ")" : ""));
         }
     }
-}
\ No newline at end of file
+}
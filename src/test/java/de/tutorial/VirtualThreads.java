@@ -0,0 +1,32 @@
+package de.tutorial;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Zugriff auf Virtual Threads, solange das Projekt noch für Java 17 kompiliert wird.
+ * Auf Java 21+ liefert {@link #newPerTaskExecutor()} einen Executor mit einem Virtual Thread pro Aufgabe.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean available() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    static Optional<ExecutorService> newPerTaskExecutor() {
+        if (!available()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
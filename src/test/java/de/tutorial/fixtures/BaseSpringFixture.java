@@ -1,38 +1,34 @@
 package de.tutorial.fixtures;
 
-import de.tutorial.bookstore.BookstoreApplication;
-import org.springframework.boot.SpringApplication;
-import org.springframework.context.ConfigurableApplicationContext;
+import de.tutorial.bookstore.service.PriceCalculationService;
 
 /**
  * Basis-Klasse für alle FitNesse Fixtures, die Spring Services nutzen
  * Stellt sicher, dass FitNesse und Spock dieselbe Spring-Konfiguration verwenden
+ *
+ * Die Contexte kommen aus {@link FixtureContext} und werden erst beim ersten Zugriff gestartet:
+ * Fixtures, die nur Preise berechnen, zahlen nie für JPA/H2.
  */
 public abstract class BaseSpringFixture {
     
-    private static ConfigurableApplicationContext applicationContext;
-    
-    static {
-        // Spring Boot Anwendung einmalig starten
-        if (applicationContext == null) {
-            System.setProperty("spring.profiles.active", "test");
-            applicationContext = SpringApplication.run(BookstoreApplication.class);
-        }
+    /**
+     * Gibt eine Spring Bean aus der vollständigen Anwendung zurück - genau wie in Spock Tests
+     */
+    protected <T> T getBean(Class<T> beanClass) {
+        return FixtureContext.application().getBean(beanClass);
     }
     
     /**
-     * Gibt eine Spring Bean zurück - genau wie in Spock Tests
+     * Preisberechnung aus dem schlanken Context ohne Datenbank
      */
-    protected <T> T getBean(Class<T> beanClass) {
-        return applicationContext.getBean(beanClass);
+    protected PriceCalculationService priceCalculationService() {
+        return FixtureContext.priceCalculationService();
     }
     
     /**
      * Shutdown-Hook für sauberes Beenden
      */
     public static void shutdown() {
-        if (applicationContext != null) {
-            applicationContext.close();
-        }
+        FixtureContext.close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,134 @@
+package de.tutorial.fixtures;
+
+import de.tutorial.bookstore.BookstoreApplication;
+import de.tutorial.bookstore.pricing.PricingRulesEngine;
+import de.tutorial.bookstore.service.PriceCalculationService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Gemeinsame Spring-Contexte für alle FitNesse Fixtures, je Slim-JVM höchstens einmal gestartet.
+ *
+ * <ul>
+ *   <li>{@link #pricing()}: nur {@link PriceCalculationService} mit den Preisregeln aus der application.yml,
+ *       ohne JPA, H2 und Web - Millisekunden</li>
+ *   <li>{@link #application()}: die komplette Anwendung wie in den Spock-Tests, aber ohne Web-Server;
+ *       mit {@code -Dfixtures.lazyInit=true} werden Beans erst bei Bedarf erzeugt</li>
+ * </ul>
+ *
+ * Beide werden erst beim ersten Zugriff gestartet (Holder-Idiom, damit threadsicher ohne Locks).
+ * Die Startzeit wird protokolliert und ist über {@link #pricingStartupMillis()} bzw.
+ * {@link #applicationStartupMillis()} abfragbar.
+ */
+public final class FixtureContext {
+
+    static final String LAZY_INIT_PROPERTY = "fixtures.lazyInit";
+
+    private static volatile ConfigurableApplicationContext pricingContext;
+    private static volatile ConfigurableApplicationContext applicationContext;
+    private static volatile long pricingStartupMillis = -1;
+    private static volatile long applicationStartupMillis = -1;
+
+    private FixtureContext() {
+    }
+
+    /**
+     * Minimaler Context nur mit den Preisberechnungen
+     */
+    public static ConfigurableApplicationContext pricing() {
+        return PricingHolder.CONTEXT;
+    }
+
+    /**
+     * Vollständige Anwendung (Profil "test") ohne Web-Server
+     */
+    public static ConfigurableApplicationContext application() {
+        return ApplicationHolder.CONTEXT;
+    }
+
+    public static PriceCalculationService priceCalculationService() {
+        return pricing().getBean(PriceCalculationService.class);
+    }
+
+    /**
+     * Dieselben Rabatt- und Versandstaffeln wie in der Anwendung - Fixtures rechnen nie mit eigenen Kopien
+     */
+    public static PricingRulesEngine pricingRules() {
+        return pricing().getBean(PricingRulesEngine.class);
+    }
+
+    /**
+     * Startzeit in ms, -1 solange der Context nicht gestartet wurde
+     */
+    public static long pricingStartupMillis() {
+        return pricingStartupMillis;
+    }
+
+    public static long applicationStartupMillis() {
+        return applicationStartupMillis;
+    }
+
+    /**
+     * Schließt nur Contexte, die tatsächlich gestartet wurden
+     */
+    public static void close() {
+        if (applicationContext != null) {
+            applicationContext.close();
+        }
+        if (pricingContext != null) {
+            pricingContext.close();
+        }
+    }
+
+    private static final class PricingHolder {
+        static final ConfigurableApplicationContext CONTEXT = startPricing();
+    }
+
+    private static final class ApplicationHolder {
+        static final ConfigurableApplicationContext CONTEXT = startApplication();
+    }
+
+    private static ConfigurableApplicationContext startPricing() {
+        long start = System.nanoTime();
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        try {
+            for (PropertySource<?> source : new YamlPropertySourceLoader()
+                    .load("application.yml", new ClassPathResource("application.yml"))) {
+                context.getEnvironment().getPropertySources().addLast(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        context.register(PricingRulesEngine.class, PriceCalculationService.class);
+        context.refresh();
+        context.registerShutdownHook();
+        pricingContext = context;
+        pricingStartupMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Fixture-Context (Preise) in " + pricingStartupMillis + " ms gestartet");
+        return context;
+    }
+
+    private static ConfigurableApplicationContext startApplication() {
+        boolean lazy = Boolean.getBoolean(LAZY_INIT_PROPERTY);
+        long start = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BookstoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .lazyInitialization(lazy)
+                .logStartupInfo(false)
+                .run();
+        applicationContext = context;
+        applicationStartupMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Fixture-Context (Anwendung" + (lazy ? ", lazy" : "") + ") in "
+                + applicationStartupMillis + " ms gestartet");
+        return context;
+    }
+}
@@ -16,8 +16,8 @@ public class IntegratedPriceCalculationFixture extends BaseSpringFixture {
     private int anzahl;
     
     public IntegratedPriceCalculationFixture() {
-        // Nutze denselben Service wie Spock Tests
-        this.priceService = getBean(PriceCalculationService.class);
+        // Nutze denselben Service wie Spock Tests - braucht keine Datenbank
+        this.priceService = priceCalculationService();
     }
     
     // Setter für FitNesse
@@ -53,10 +53,6 @@ public class IntegratedPriceCalculationFixture extends BaseSpringFixture {
     }
     
     public String rabattsatz() {
-        // Könnte auch aus dem Service kommen
-        if (anzahl >= 10) return "15%";
-        if (anzahl >= 5) return "10%";
-        if (anzahl >= 3) return "5%";
-        return "0%";
+        return priceService.discountPercent(anzahl) + "%";
     }
 }
\ No newline at end of file
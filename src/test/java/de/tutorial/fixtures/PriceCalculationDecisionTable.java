@@ -12,7 +12,7 @@ import java.util.List;
  */
 public class PriceCalculationDecisionTable {
     
-    private PriceCalculationService priceService = new PriceCalculationService();
+    private final PriceCalculationService priceService = FixtureContext.priceCalculationService();
     private BigDecimal buchpreis;
     private int anzahl;
     
@@ -27,10 +27,7 @@ public class PriceCalculationDecisionTable {
     
     // Getter für Output-Spalten
     public String rabattsatz() {
-        if (anzahl >= 10) return "15%";
-        if (anzahl >= 5) return "10%";
-        if (anzahl >= 3) return "5%";
-        return "0%";
+        return priceService.discountPercent(anzahl) + "%";
     }
     
     public String zwischensumme() {
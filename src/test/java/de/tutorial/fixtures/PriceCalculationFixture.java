@@ -9,7 +9,7 @@ import java.math.BigDecimal;
  */
 public class PriceCalculationFixture extends ColumnFixture {
     
-    private PriceCalculationService priceService = new PriceCalculationService();
+    private final PriceCalculationService priceService = FixtureContext.priceCalculationService();
     
     // Input-Felder - müssen public sein für FitNesse
     public double buchpreis;
@@ -46,9 +46,6 @@ public class PriceCalculationFixture extends ColumnFixture {
     }
     
     public String rabattsatz() {
-        if (anzahl >= 10) return "15%";
-        if (anzahl >= 5) return "10%";
-        if (anzahl >= 3) return "5%";
-        return "0%";
+        return priceService.discountPercent(anzahl) + "%";
     }
 }
\ No newline at end of file
@@ -9,7 +9,7 @@ import java.math.BigDecimal;
  */
 public class ShippingCostFixture extends ColumnFixture {
     
-    private PriceCalculationService priceService = new PriceCalculationService();
+    private final PriceCalculationService priceService = FixtureContext.priceCalculationService();
     public double bestellwert;
     
     // Setter wird nicht benötigt, da das Feld public ist
@@ -25,7 +25,7 @@ public class ShippingCostFixture extends ColumnFixture {
         
         if (kosten.compareTo(BigDecimal.ZERO) == 0) {
             return "Kostenloser Versand!";
-        } else if (kosten.compareTo(new BigDecimal("2.95")) == 0) {
+        } else if (kosten.compareTo(FixtureContext.pricingRules().current().standardShippingCost()) < 0) {
             return "Reduzierte Versandkosten";
         } else {
             return "Standard-Versand";
@@ -34,9 +34,9 @@ public class ShippingCostFixture extends ColumnFixture {
     
     public double fehlbetragFuerKostenlosenVersand() {
         BigDecimal wert = new BigDecimal(bestellwert);
-        if (wert.compareTo(new BigDecimal("50.00")) >= 0) {
-            return 0.0;
-        }
-        return new BigDecimal("50.00").subtract(wert).doubleValue();
+        return FixtureContext.pricingRules().current().freeShippingThreshold()
+                .map(schwelle -> schwelle.subtract(wert).max(BigDecimal.ZERO))
+                .orElse(BigDecimal.ZERO)
+                .doubleValue();
     }
 }
\ No newline at end of file
@@ -9,7 +9,7 @@ import java.math.BigDecimal;
  */
 public class SimplePriceCalculationFixture {
     
-    private PriceCalculationService priceService = new PriceCalculationService();
+    private final PriceCalculationService priceService = FixtureContext.priceCalculationService();
     
     // Input-Felder - public für FitNesse
     public double buchpreis;
@@ -58,9 +58,6 @@ public class SimplePriceCalculationFixture {
     }
     
     public String rabattsatz() {
-        if (anzahl >= 10) return "15%";
-        if (anzahl >= 5) return "10%";
-        if (anzahl >= 3) return "5%";
-        return "0%";
+        return priceService.discountPercent(anzahl) + "%";
     }
 }
\ No newline at end of file
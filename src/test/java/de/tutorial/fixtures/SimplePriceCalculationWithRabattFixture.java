@@ -4,7 +4,8 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 
 /**
- * Einfache Preisberechnung für FitNesse ohne Spring Dependencies
+ * Einfache Preisberechnung für FitNesse, rundet erst am Ende (anders als der Service).
+ * Nur die Rabattstaffel kommt aus dem gemeinsamen Preisregel-Context.
  */
 public class SimplePriceCalculationWithRabattFixture {
     
@@ -22,10 +23,8 @@ public class SimplePriceCalculationWithRabattFixture {
     
     // Getter für Output-Spalten
     public String rabattsatz() {
-        if (anzahl >= 10) return "15.00";
-        if (anzahl >= 5) return "10.00";
-        if (anzahl >= 3) return "5.00";
-        return "0.00";
+        int prozent = FixtureContext.priceCalculationService().discountPercent(anzahl);
+        return String.format(java.util.Locale.US, "%.2f", (double) prozent);
     }
     
     public String endpreis() {
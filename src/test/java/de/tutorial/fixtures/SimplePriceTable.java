@@ -6,6 +6,7 @@ import java.math.RoundingMode;
 /**
  * Simple FitNesse fixture for price calculations
  * Works with Slim Test System
+ * Calculates with doubles; only the discount tiers come from the shared pricing rules
  */
 public class SimplePriceTable {
     
@@ -21,10 +22,7 @@ public class SimplePriceTable {
     }
     
     public String rabattsatz() {
-        if (anzahl >= 10) return "15%";
-        if (anzahl >= 5) return "10%";
-        if (anzahl >= 3) return "5%";
-        return "0%";
+        return FixtureContext.priceCalculationService().discountPercent(anzahl) + "%";
     }
     
     public String zwischensumme() {
@@ -32,30 +30,19 @@ public class SimplePriceTable {
     }
     
     public String rabattbetrag() {
-        double rabatt = 0.0;
-        if (anzahl >= 10) rabatt = 0.15;
-        else if (anzahl >= 5) rabatt = 0.10;
-        else if (anzahl >= 3) rabatt = 0.05;
-        
-        return formatPrice(buchpreis * anzahl * rabatt);
+        return formatPrice(buchpreis * anzahl * rabatt());
     }
     
     public String endpreis() {
         double zwischen = buchpreis * anzahl;
-        double rabatt = 0.0;
-        if (anzahl >= 10) rabatt = 0.15;
-        else if (anzahl >= 5) rabatt = 0.10;
-        else if (anzahl >= 3) rabatt = 0.05;
+        double rabatt = rabatt();
         double rabattBetrag = zwischen * rabatt;
         return formatPrice(zwischen - rabattBetrag);
     }
     
     public String mehrwertsteuer() {
         double zwischen = buchpreis * anzahl;
-        double rabatt = 0.0;
-        if (anzahl >= 10) rabatt = 0.15;
-        else if (anzahl >= 5) rabatt = 0.10;
-        else if (anzahl >= 3) rabatt = 0.05;
+        double rabatt = rabatt();
         double rabattBetrag = zwischen * rabatt;
         double endpreis = zwischen - rabattBetrag;
         return formatPrice(endpreis * 0.07);
@@ -63,16 +50,17 @@ public class SimplePriceTable {
     
     public String gesamtpreisMitMwst() {
         double zwischen = buchpreis * anzahl;
-        double rabatt = 0.0;
-        if (anzahl >= 10) rabatt = 0.15;
-        else if (anzahl >= 5) rabatt = 0.10;
-        else if (anzahl >= 3) rabatt = 0.05;
+        double rabatt = rabatt();
         double rabattBetrag = zwischen * rabatt;
         double endpreis = zwischen - rabattBetrag;
         double mwst = endpreis * 0.07;
         return formatPrice(endpreis + mwst);
     }
     
+    private double rabatt() {
+        return FixtureContext.priceCalculationService().discountPercent(anzahl) / 100.0;
+    }
+    
     private String formatPrice(double value) {
         // Use US locale to ensure dot as decimal separator
         return String.format(java.util.Locale.US, "%.2f", round(value));
@@ -8,7 +8,7 @@ import java.math.BigDecimal;
  */
 public class SimpleShippingCostFixture {
     
-    private PriceCalculationService priceService = new PriceCalculationService();
+    private final PriceCalculationService priceService = FixtureContext.priceCalculationService();
     private double bestellwert;
     
     // Setter für Decision Table
@@ -28,7 +28,7 @@ public class SimpleShippingCostFixture {
         
         if (kosten.compareTo(BigDecimal.ZERO) == 0) {
             return "Kostenloser Versand!";
-        } else if (kosten.compareTo(new BigDecimal("2.95")) == 0) {
+        } else if (kosten.compareTo(FixtureContext.pricingRules().current().standardShippingCost()) < 0) {
             return "Reduzierte Versandkosten";
         } else {
             return "Standard-Versand";
@@ -37,10 +37,10 @@ public class SimpleShippingCostFixture {
     
     public String fehlbetragFuerKostenlosenVersand() {
         BigDecimal wert = new BigDecimal(String.valueOf(bestellwert));
-        if (wert.compareTo(new BigDecimal("50.00")) >= 0) {
-            return "0.00";
-        }
-        double fehlbetrag = new BigDecimal("50.00").subtract(wert).doubleValue();
+        double fehlbetrag = FixtureContext.pricingRules().current().freeShippingThreshold()
+                .map(schwelle -> schwelle.subtract(wert).max(BigDecimal.ZERO))
+                .orElse(BigDecimal.ZERO)
+                .doubleValue();
         return String.format(java.util.Locale.US, "%.2f", fehlbetrag);
     }
 }
\ No newline at end of file
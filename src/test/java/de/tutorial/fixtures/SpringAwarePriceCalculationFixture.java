@@ -1,9 +1,6 @@
 package de.tutorial.fixtures;
 
 import de.tutorial.bookstore.service.PriceCalculationService;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
 import java.math.BigDecimal;
 
 /**
@@ -11,20 +8,15 @@ import java.math.BigDecimal;
  */
 public class SpringAwarePriceCalculationFixture {
     
-    private static ApplicationContext context;
-    private PriceCalculationService priceService;
+    private final PriceCalculationService priceService;
     
     // Input-Felder
     private BigDecimal buchpreis;
     private int anzahl;
     
     public SpringAwarePriceCalculationFixture() {
-        // Spring Context initialisieren (nur einmal)
-        if (context == null) {
-            context = new AnnotationConfigApplicationContext("de.tutorial.bookstore");
-        }
-        // Den gleichen Service nutzen wie in Spock Tests
-        this.priceService = context.getBean(PriceCalculationService.class);
+        // Den gleichen Service nutzen wie in Spock Tests, aus dem gemeinsamen schlanken Context
+        this.priceService = FixtureContext.priceCalculationService();
     }
     
     // Setter für FitNesse